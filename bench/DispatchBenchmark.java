@@ -0,0 +1,129 @@
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a request file through a model of the fleet with each dispatch strategy and prints the average and
+ * worst wait (request to pick up) and journey (request to drop off) times, in seconds of elevator time, and the
+ * number of floors moved. The model serves each elevator's stops in LOOK order using the elevator's sleep times,
+ * the same as the scheduler, or strictly one request at a time in the order assigned, as the scheduler used to.
+ * Usage: DispatchBenchmark [request file] [arrival speed-up], a speed-up of 2 halves the gaps between requests.
+ */
+public class DispatchBenchmark {
+    private static final int STEP = 100; // ms of model time per step
+    private static final int FLOOR_TIME = Elevator.ElevatorState.MOVING.getSleepTime();
+    private static final int STOP_TIME = Elevator.ElevatorState.DOORS_OPEN.getSleepTime();
+
+    public static void main(String[] args) {
+        File file = new File(args.length > 0 ? args[0] : "src/InputFile.txt");
+        double speedUp = args.length > 1 ? Double.parseDouble(args[1]) : 1;
+        ArrayList<Request> requests = InputParser.parseFile(file);
+
+        System.out.printf("%-16s %10s %10s %12s %12s %10s%n", "Strategy", "Avg wait", "Max wait", "Avg journey", "Max journey", "Movements");
+        run("heuristic fifo", new HeuristicDispatch(), false, requests, speedUp);
+        run("heuristic look", new HeuristicDispatch(), true, requests, speedUp);
+        run("cost look", new CostDispatch(), true, requests, speedUp);
+    }
+
+    private static void run(String name, DispatchStrategy dispatch, boolean look, List<Request> requests, double speedUp) {
+        int elevators = ElevatorStart.NUM_ELEVATORS;
+        ArrayList<ArrayList<RequestPickedUpPair>> queues = new ArrayList<>();
+        ArrayList<SweepStops> stops = new ArrayList<>();
+        int[] floors = new int[elevators];
+        Elevator.ElevatorState[] states = new Elevator.ElevatorState[elevators];
+        long[] busyUntil = new long[elevators];
+        for (int i = 0; i < elevators; i++) {
+            queues.add(new ArrayList<>());
+            stops.add(new SweepStops());
+            floors[i] = 1;
+            states[i] = Elevator.ElevatorState.IDLE;
+        }
+
+        LocalTime start = requests.get(0).getTime();
+        long[] arrivals = new long[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            arrivals[i] = (long) (Duration.between(start, requests.get(i).getTime()).toMillis() / speedUp);
+        }
+
+        long totalWait = 0, maxWait = 0, totalJourney = 0, maxJourney = 0;
+        int next = 0, delivered = 0, movements = 0;
+        ArrayList<RequestPickedUpPair> pickedUp = new ArrayList<>();
+        ArrayList<RequestPickedUpPair> droppedOff = new ArrayList<>();
+        for (long now = 0; delivered < requests.size(); now += STEP) {
+            while (next < requests.size() && arrivals[next] <= now) {
+                Request request = requests.get(next++);
+                int best = -1;
+                int lowestScore = Integer.MAX_VALUE;
+                for (int i = 0; i < elevators; i++) {
+                    int score = dispatch.score(status(i, floors, states, queues, stops), queues.get(i), request);
+                    if (score < lowestScore) {
+                        best = i;
+                        lowestScore = score;
+                    }
+                }
+                dispatch.assign(queues.get(best), request);
+                stops.get(best).rebuild(queues.get(best));
+            }
+
+            for (int i = 0; i < elevators; i++) {
+                if (busyUntil[i] > now) {
+                    continue;
+                }
+                ArrayList<RequestPickedUpPair> queue = queues.get(i);
+                int target = queue.isEmpty() ? -1 : look ? stops.get(i).nextStop(floors[i]) : SweepStops.stopFloor(queue.get(0));
+                if (target == -1) {
+                    states[i] = Elevator.ElevatorState.IDLE;
+                    continue;
+                }
+                if (floors[i] != target) {
+                    floors[i] += Integer.signum(target - floors[i]);
+                    states[i] = Elevator.ElevatorState.MOVING;
+                    busyUntil[i] = now + FLOOR_TIME;
+                    movements++;
+                    continue;
+                }
+                states[i] = Elevator.ElevatorState.DOORS_OPEN;
+                busyUntil[i] = now + STOP_TIME;
+                if (look) {
+                    stops.get(i).serve(target, queue, pickedUp, droppedOff);
+                } else if (queue.get(0).isPickedUp()) {
+                    droppedOff.add(queue.remove(0));
+                } else {
+                    queue.get(0).setPickedUp(true);
+                    pickedUp.add(queue.get(0));
+                }
+                for (RequestPickedUpPair pair : pickedUp) {
+                    long elapsed = now - arrivals[requests.indexOf(pair.getRequest())];
+                    totalWait += elapsed;
+                    maxWait = Math.max(maxWait, elapsed);
+                }
+                for (RequestPickedUpPair pair : droppedOff) {
+                    long elapsed = now - arrivals[requests.indexOf(pair.getRequest())];
+                    totalJourney += elapsed;
+                    maxJourney = Math.max(maxJourney, elapsed);
+                    delivered++;
+                }
+                pickedUp.clear();
+                droppedOff.clear();
+            }
+        }
+        int count = requests.size();
+        System.out.printf("%-16s %10.1f %10.1f %12.1f %12.1f %10d%n", name,
+                totalWait / 1000.0 / count, maxWait / 1000.0, totalJourney / 1000.0 / count, maxJourney / 1000.0, movements);
+    }
+
+    // the status the elevator would have last reported
+    private static ElevatorStatus status(int i, int[] floors, Elevator.ElevatorState[] states, ArrayList<ArrayList<RequestPickedUpPair>> queues, ArrayList<SweepStops> stops) {
+        int destination = queues.get(i).isEmpty() ? floors[i] : SweepStops.stopFloor(queues.get(i).get(0));
+        Elevator.ElevatorMovement movement = Elevator.ElevatorMovement.STOP;
+        if (states[i] == Elevator.ElevatorState.MOVING) {
+            movement = destination > floors[i] ? Elevator.ElevatorMovement.UP : Elevator.ElevatorMovement.DOWN;
+            if (stops.get(i).getDirection() != Elevator.ElevatorMovement.STOP) {
+                movement = stops.get(i).getDirection(); // LOOK may be passing its first queued stop
+            }
+        }
+        return new ElevatorStatus(i + 1, floors[i], destination, states[i], movement);
+    }
+}
@@ -0,0 +1,430 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Times the hot paths one at a time: dispatch scoring across fleet sizes, a full scheduler cycle, MessageBuffer
+ * under contention, request line parsing and message encoding. Each benchmark warms up, then runs MEASUREMENTS
+ * timed rounds, and prints the mean and standard deviation of the time per operation.
+ * Usage: HotPathBenchmark [-save file] [-compare file] [filter]. -save writes the results as a baseline, and
+ * -compare exits with status 1 if any benchmark is more than REGRESSION_THRESHOLD slower than the baseline.
+ * Only benchmarks whose name contains the filter run.
+ */
+public class HotPathBenchmark {
+    private static final int WARMUPS = 5;
+    private static final int MEASUREMENTS = 10;
+    private static final long ROUND_NANOS = 200_000_000;
+    private static final double REGRESSION_THRESHOLD = 0.2;
+    private static final int[] FLEET_SIZES = {4, 16, 48, 128};
+    private static final int[] BURST_FLEET_SIZES = {4, 16};
+    private static final int BURST_SIZE = 64;
+    private static final int[] QUEUED_PER_CAR = {0, 4, 16};
+    private static final int[] OUTSTANDING = {64, 4096};
+    private static final int[] PRODUCERS = {1, 4};
+
+    private static long sink; // every result is added here so the work can't be optimized away
+    private static final Map<String, Double> results = new LinkedHashMap<>();
+    private static String filter = "";
+    private static PrintStream report; // standard output, which the scheduler's own printing is kept out of
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String save = null;
+        String compare = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-save")) {
+                save = args[++i];
+            } else if (args[i].equals("-compare")) {
+                compare = args[++i];
+            } else {
+                filter = args[i];
+            }
+        }
+
+        report = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        report.printf("%-36s %12s %10s%n", "Benchmark", "ns/op", "stddev");
+        for (int cars : FLEET_SIZES) {
+            dispatch("heuristic score, " + cars + " cars", new HeuristicDispatch(), cars);
+            fleetDispatch("heuristic fleet score, " + cars + " cars", new HeuristicDispatch(), cars);
+            dispatch("cost score, " + cars + " cars", new CostDispatch(), cars);
+        }
+        for (int cars : BURST_FLEET_SIZES) {
+            burst("cost burst, " + cars + " cars", new CostDispatch(), cars, false);
+            burst("cost burst with table, " + cars + " cars", new CostDispatch(), cars, true);
+        }
+        for (int queued : QUEUED_PER_CAR) {
+            schedulerCycle(queued);
+        }
+        for (int outstanding : OUTSTANDING) {
+            activeRequests(outstanding, false);
+            activeRequests(outstanding, true);
+        }
+        for (int producers : PRODUCERS) {
+            bufferContention(producers);
+        }
+        parseLine();
+        encoding();
+
+        if (save != null) {
+            try (PrintWriter out = new PrintWriter(new FileWriter(save))) {
+                results.forEach((name, nanos) -> out.printf("%s\t%.1f%n", name, nanos));
+            }
+        }
+        if (compare != null && !compare(new File(compare))) {
+            System.exit(1);
+        }
+        System.exit(0); // the buffers' RMI threads would keep the process alive
+    }
+
+    // scores one request against every car and picks the best, one ElevatorStatus at a time as selectElevator used to
+    private static void dispatch(String name, DispatchStrategy dispatch, int cars) throws Exception {
+        ElevatorStatus[] statuses = new ElevatorStatus[cars];
+        ArrayList<List<RequestPickedUpPair>> queues = new ArrayList<>();
+        Request[] requests = fleet(cars, statuses, queues);
+        int[] next = {0};
+        measure(name, () -> {
+            Request request = requests[next[0]++ & (requests.length - 1)];
+            int best = -1;
+            int lowestScore = Integer.MAX_VALUE;
+            for (int i = 0; i < cars; i++) {
+                int score = dispatch.score(statuses[i], queues.get(i), request);
+                if (score < lowestScore) {
+                    lowestScore = score;
+                    best = i;
+                }
+            }
+            sink += best;
+        });
+    }
+
+    // the same fleet and requests scored in one pass over a FleetState, as selectElevator does
+    private static void fleetDispatch(String name, DispatchStrategy dispatch, int cars) throws Exception {
+        ElevatorStatus[] statuses = new ElevatorStatus[cars];
+        ArrayList<List<RequestPickedUpPair>> queues = new ArrayList<>();
+        Request[] requests = fleet(cars, statuses, queues);
+        FleetState fleet = new FleetState(cars);
+        for (int i = 0; i < cars; i++) {
+            fleet.set(i, statuses[i]);
+        }
+        int[] scores = new int[cars];
+        int[] next = {0};
+        measure(name, () -> {
+            dispatch.scoreAll(fleet, queues, requests[next[0]++ & (requests.length - 1)], scores);
+            sink += FleetState.lowest(scores);
+        });
+    }
+
+    // time per request of a burst of calls from the lobby assigned between two rounds of status reports, each burst
+    // starting from the same statuses and queues
+    private static void burst(String name, DispatchStrategy dispatch, int cars, boolean table) throws Exception {
+        ElevatorStatus[] statuses = new ElevatorStatus[cars];
+        ArrayList<List<RequestPickedUpPair>> initialQueues = new ArrayList<>();
+        fleet(cars, statuses, initialQueues);
+        Random random = new Random(2);
+        Request[] requests = new Request[BURST_SIZE];
+        for (int i = 0; i < BURST_SIZE; i++) {
+            requests[i] = new Request(LocalTime.NOON, 1, Request.Direction.UP, 2 + random.nextInt(FloorStart.NUM_FLOORS - 1), 0, false);
+        }
+        FleetState fleet = new FleetState(cars);
+        ArrayList<List<RequestPickedUpPair>> queues = new ArrayList<>();
+        CostTable costs = table ? new CostTable(dispatch) : null;
+        int[] scores = new int[cars];
+        int[] next = {0};
+        measure(name, () -> {
+            int n = next[0]++ % BURST_SIZE;
+            if (n == 0) {
+                queues.clear();
+                for (int i = 0; i < cars; i++) {
+                    queues.add(new ArrayList<>(initialQueues.get(i)));
+                    fleet.set(i, statuses[i]);
+                }
+            }
+            if (costs != null) {
+                costs.scoreAll(fleet, queues, requests[n], scores);
+            } else {
+                dispatch.scoreAll(fleet, queues, requests[n], scores);
+            }
+            int best = FleetState.lowest(scores);
+            dispatch.assign(queues.get(best), requests[n]);
+            fleet.queueChanged(best);
+        });
+    }
+
+    // one request delivered and a new one received with this many outstanding, in a list searched for the request
+    // as activeRequests used to be, or in ActiveRequests by id
+    private static void activeRequests(int outstanding, boolean indexed) throws Exception {
+        String name = (indexed ? "active requests by id, " : "active requests list, ") + outstanding + " outstanding";
+        Random random = new Random(3);
+        Request[] live = new Request[outstanding];
+        ArrayList<Request> list = new ArrayList<>();
+        ActiveRequests active = new ActiveRequests();
+        for (int i = 0; i < outstanding; i++) {
+            live[i] = randomRequest(random, FloorStart.NUM_FLOORS);
+            if (indexed) {
+                active.add(live[i]);
+            } else {
+                list.add(live[i]);
+            }
+        }
+        measure(name, () -> {
+            int n = random.nextInt(outstanding);
+            Request request = randomRequest(random, FloorStart.NUM_FLOORS);
+            if (indexed) {
+                active.remove(live[n].getId());
+                active.add(request);
+                sink += active.size();
+            } else {
+                list.remove(live[n]);
+                list.add(request);
+                sink += list.size();
+            }
+            live[n] = request;
+        });
+    }
+
+    // fills in a random status and queue for every car and returns the requests to score
+    private static Request[] fleet(int cars, ElevatorStatus[] statuses, List<List<RequestPickedUpPair>> queues) {
+        Random random = new Random(1);
+        int floors = FloorStart.NUM_FLOORS;
+        for (int i = 0; i < cars; i++) {
+            int floor = 1 + random.nextInt(floors);
+            ArrayList<RequestPickedUpPair> queue = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                queue.add(new RequestPickedUpPair(randomRequest(random, floors), random.nextBoolean()));
+            }
+            int destination = SweepStops.stopFloor(queue.get(0));
+            Elevator.ElevatorMovement movement = destination > floor ? Elevator.ElevatorMovement.UP
+                    : destination < floor ? Elevator.ElevatorMovement.DOWN : Elevator.ElevatorMovement.STOP;
+            Elevator.ElevatorState state = movement == Elevator.ElevatorMovement.STOP ? Elevator.ElevatorState.DOORS_OPEN : Elevator.ElevatorState.MOVING;
+            statuses[i] = new ElevatorStatus(i + 1, floor, destination, state, movement);
+            queues.add(queue);
+        }
+        Request[] requests = new Request[64];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = randomRequest(random, floors);
+        }
+        return requests;
+    }
+
+    // every car reports a new status and the scheduler runs one cycle, with the given requests queued on each car
+    private static void schedulerCycle(int queuedPerCar) throws Exception {
+        String name = "scheduler cycle, " + queuedPerCar + " queued/car";
+        if (!name.contains(filter)) {
+            return;
+        }
+        int cars = ElevatorStart.NUM_ELEVATORS;
+        int floors = FloorStart.NUM_FLOORS;
+        ArrayList<UnicastRemoteObject> buffers = new ArrayList<>();
+        MessageBuffer<Request> floorsIn = new MessageBuffer<>();
+        StatusBoard elevatorsIn = new StatusBoard(cars);
+        buffers.add(floorsIn);
+        buffers.add(elevatorsIn);
+        ArrayList<SharedDataInterface<Integer>> floorsOut = new ArrayList<>();
+        for (int i = 0; i < floors; i++) {
+            MessageBuffer<Integer> floorOut = new MessageBuffer<>(64, MessageBuffer.OverflowPolicy.DROP_OLDEST);
+            floorsOut.add(floorOut);
+            buffers.add(floorOut);
+        }
+        ArrayList<SharedDataInterface<Command>> elevatorsOut = new ArrayList<>();
+        for (int i = 0; i < cars; i++) {
+            MessageBuffer<Command> elevatorOut = new MessageBuffer<>(64, MessageBuffer.OverflowPolicy.DROP_OLDEST);
+            elevatorsOut.add(elevatorOut);
+            buffers.add(elevatorOut);
+        }
+        Scheduler scheduler = new Scheduler(floorsIn, floorsOut, elevatorsIn, elevatorsOut, new CostDispatch(), Clock.SYSTEM, null);
+
+        // every car idles at the lobby while the requests are assigned, all from floor 3 and up so no car stops
+        // at floor 2, where the cars are then held moving up
+        Random random = new Random(1);
+        for (int i = 0; i < cars; i++) {
+            elevatorsIn.put(new ElevatorStatus(i + 1, 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        }
+        for (int i = 0; i < queuedPerCar * cars; i++) {
+            int source = 3 + random.nextInt(floors - 3);
+            floorsIn.put(new Request(LocalTime.NOON, source, Request.Direction.UP, source + 1, 0, false));
+            scheduler.step(true);
+        }
+        ElevatorStatus[] moving = new ElevatorStatus[cars];
+        for (int i = 0; i < cars; i++) {
+            moving[i] = new ElevatorStatus(i + 1, 2, 3, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP);
+        }
+
+        try {
+            measure(name, () -> {
+                for (ElevatorStatus status : moving) {
+                    elevatorsIn.put(status);
+                }
+                scheduler.step(false);
+            });
+        } finally {
+            for (UnicastRemoteObject buffer : buffers) {
+                UnicastRemoteObject.unexportObject(buffer, true);
+            }
+        }
+    }
+
+    // producers put as fast as they can while the timed thread drains, time per message drained
+    private static void bufferContention(int producers) throws Exception {
+        String name = "buffer put/drain, " + producers + " producers";
+        if (!name.contains(filter)) {
+            return;
+        }
+        MessageBuffer<Integer> buffer = new MessageBuffer<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ArrayList<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            Thread producer = new Thread(() -> {
+                Integer message = 1;
+                try {
+                    while (running.get()) {
+                        buffer.put(message);
+                    }
+                } catch (Exception e) {
+                    Error.handleError(e);
+                }
+            });
+            producer.setDaemon(true);
+            producer.start();
+            threads.add(producer);
+        }
+        try {
+            measure(name, () -> {
+                Integer message = buffer.take(1000);
+                sink += message == null ? 0 : message;
+            });
+        } finally {
+            running.set(false);
+            buffer.drainTo(Integer.MAX_VALUE); // unblock any producer waiting on a full buffer
+            for (Thread producer : threads) {
+                producer.join(1000);
+            }
+            UnicastRemoteObject.unexportObject(buffer, true);
+        }
+    }
+
+    private static void parseLine() throws Exception {
+        String[] lines = {"02:22:00.15 2 up 18 0", "14:05:15.0 11 down 1 0", "23:59:59.99 22 Down 3 1", "00:00:00 1 UP 22 2"};
+        int[] next = {0};
+        measure("parse request line", () -> sink += InputParser.parseLine(lines[next[0]++ & 3]).getDestinationFloor());
+    }
+
+    private static void encoding() throws Exception {
+        Request request = new Request(LocalTime.parse("02:22:00.15"), 2, Request.Direction.UP, 18, 0, false);
+        ElevatorStatus status = new ElevatorStatus(1, 5, 18, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        measure("Request wire codec round trip", () -> {
+            buffer.clear();
+            WireCodec.REQUEST.write(request, buffer);
+            buffer.flip();
+            sink += WireCodec.REQUEST.read(buffer).getSourceFloor();
+        });
+        measure("ElevatorStatus wire codec round trip", () -> {
+            buffer.clear();
+            WireCodec.ELEVATOR_STATUS.write(status, buffer);
+            buffer.flip();
+            sink += WireCodec.ELEVATOR_STATUS.read(buffer).getCurrentFloor();
+        });
+        measure("Request serialized round trip", () -> sink += ((Request) roundTrip(request)).getSourceFloor());
+        measure("ElevatorStatus serialized round trip", () -> sink += ((ElevatorStatus) roundTrip(status)).getCurrentFloor());
+    }
+
+    // one stream per object, the same as each RMI call writing a single message
+    private static Object roundTrip(Object object) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+
+    private static void measure(String name, Operation operation) throws Exception {
+        if (!name.contains(filter)) {
+            return;
+        }
+        for (int i = 0; i < WARMUPS; i++) {
+            round(operation);
+        }
+        double[] rounds = new double[MEASUREMENTS];
+        double mean = 0;
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            rounds[i] = round(operation);
+            mean += rounds[i] / MEASUREMENTS;
+        }
+        double variance = 0;
+        for (double nanos : rounds) {
+            variance += (nanos - mean) * (nanos - mean) / MEASUREMENTS;
+        }
+        results.put(name, mean);
+        report.printf("%-36s %12.1f %10.1f%n", name, mean, Math.sqrt(variance));
+    }
+
+    // runs the operation for about ROUND_NANOS, checking the time every batch, and returns the mean ns per operation
+    private static double round(Operation operation) throws Exception {
+        long operations = 0;
+        int batch = 1;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < batch; i++) {
+                operation.run();
+            }
+            operations += batch;
+            batch = Math.min(batch * 2, 1 << 16);
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ROUND_NANOS);
+        return (double) elapsed / operations;
+    }
+
+    // compares against a saved baseline and reports every benchmark that got slower by more than the threshold
+    private static boolean compare(File baseline) throws IOException {
+        boolean passed = true;
+        try (BufferedReader in = new BufferedReader(new FileReader(baseline))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t");
+                Double nanos = results.get(fields[0]);
+                double baselineNanos = Double.parseDouble(fields[1]);
+                if (nanos != null && nanos > baselineNanos * (1 + REGRESSION_THRESHOLD)) {
+                    report.printf("REGRESSION %s: %.1f ns/op, baseline %.1f ns/op%n", fields[0], nanos, baselineNanos);
+                    passed = false;
+                }
+            }
+        }
+        report.println(passed ? "No regressions against " + baseline : "Slower than " + baseline);
+        return passed;
+    }
+
+    private static Request randomRequest(Random random, int floors) {
+        int source = 1 + random.nextInt(floors);
+        int destination = 1 + random.nextInt(floors - 1);
+        if (destination >= source) {
+            destination++;
+        }
+        Request.Direction direction = destination > source ? Request.Direction.UP : Request.Direction.DOWN;
+        return new Request(LocalTime.NOON, source, direction, destination, 0, false);
+    }
+}
@@ -0,0 +1,126 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Generates a large sorted request trace and reads it three ways: with the original regex parser into a sorted list,
+ * with InputParser.parseFile(), and with a RequestStream counting requests per floor in one pass as FloorStart does.
+ * Prints the time, throughput and peak heap of each. Peak heap includes garbage not yet collected, so run with a
+ * small heap, e.g. -Xmx64m, to see which ones fit. A parser that runs out of memory is reported as such.
+ * Usage: ParserBenchmark [lines] [trace file], the file is generated if it doesn't exist and deleted afterwards if
+ * no file was given. Defaults to 10 million lines.
+ */
+public class ParserBenchmark {
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        File file;
+        if (args.length > 1) {
+            file = new File(args[1]);
+        } else {
+            file = File.createTempFile("trace", ".txt");
+            file.deleteOnExit();
+        }
+        if (!file.exists() || file.length() == 0) {
+            System.out.println("Generating " + lines + " requests in " + file);
+            generate(file, lines);
+        }
+        System.out.printf("Trace: %s, %d MB%n", file, file.length() >> 20);
+
+        System.out.printf("%-24s %10s %14s %12s%n", "Parser", "Time (ms)", "Requests/s", "Peak heap");
+        measure("regex, whole file", () -> parseWithRegex(file).size());
+        measure("tokenizer, whole file", () -> InputParser.parseFile(file).size());
+        measure("stream, per floor", () -> streamPerFloor(file));
+    }
+
+    private interface Parse {
+        int run() throws IOException;
+    }
+
+    private static void measure(String name, Parse parse) throws IOException {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        long start = System.nanoTime();
+        int requests;
+        try {
+            requests = parse.run();
+        } catch (OutOfMemoryError e) {
+            System.out.printf("%-24s %10s%n", name, "out of memory");
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.printf("%-24s %10d %14.0f %9d MB%n", name, nanos / 1_000_000, requests * 1e9 / nanos, peakHeap >> 20);
+    }
+
+    // the parser as it was before tokenizing by hand
+    private static ArrayList<Request> parseWithRegex(File file) throws IOException {
+        ArrayList<Request> requests = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split("\\s+");
+                if (parts.length == 5) {
+                    LocalTime time = LocalTime.parse(parts[0]);
+                    int sourceFloor = Integer.parseInt(parts[1]);
+                    Request.Direction direction = parts[2].equalsIgnoreCase("up") ? Request.Direction.UP : Request.Direction.DOWN;
+                    int destinationFloor = Integer.parseInt(parts[3]);
+                    int fault = Integer.parseInt(parts[4]);
+                    requests.add(new Request(time, sourceFloor, direction, destinationFloor, fault, false));
+                }
+            }
+        }
+        requests.sort(Comparator.comparing(Request::getTime));
+        requests.get(requests.size() - 1).setIsLastRequest(true);
+        return requests;
+    }
+
+    private static int streamPerFloor(File file) throws IOException {
+        int[] perFloor = new int[FloorStart.NUM_FLOORS + 1];
+        int requests = 0;
+        try (RequestStream stream = new RequestStream(file)) {
+            while (stream.hasNext()) {
+                Request request = stream.next();
+                if (request.getSourceFloor() >= 1 && request.getSourceFloor() <= FloorStart.NUM_FLOORS) {
+                    perFloor[request.getSourceFloor()]++;
+                }
+                requests++;
+            }
+        }
+        return requests;
+    }
+
+    // requests spread evenly over a day, between random floors
+    private static void generate(File file, int lines) throws IOException {
+        Random random = new Random(1);
+        long gapNanos = 86_000_000_000_000L / lines;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            for (int i = 0; i < lines; i++) {
+                LocalTime time = LocalTime.ofNanoOfDay(i * gapNanos);
+                int source = 1 + random.nextInt(FloorStart.NUM_FLOORS);
+                int destination = 1 + random.nextInt(FloorStart.NUM_FLOORS - 1);
+                if (destination >= source) {
+                    destination++;
+                }
+                writer.write(String.format("%02d:%02d:%02d.%02d %d %s %d 0%n", time.getHour(), time.getMinute(), time.getSecond(),
+                        time.getNano() / 10_000_000, source, destination > source ? "up" : "down", destination));
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the scheduler's cycle time as the building grows. Each building size runs in its own JVM, because the
+ * floor and car counts are read once at startup, and replays the same kind of random traffic through a Simulation.
+ * Every car gets the same load, a request every 30 seconds, so only the size of the building changes.
+ * Usage: ScalingBenchmark [requests per car]
+ */
+public class ScalingBenchmark {
+    private static final int[][] SIZES = {{22, 4}, {50, 8}, {100, 16}, {100, 24}, {200, 48}}; // floors, cars
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws Exception {
+        int requestsPerCar = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        if (args.length > 1 && args[1].equals("--child")) {
+            runChild(requestsPerCar);
+            return;
+        }
+
+        System.out.printf("%7s %5s %9s %8s %14s %12s%n", "Floors", "Cars", "Requests", "Cycles", "Mean cycle us", "Real ms");
+        String java = System.getProperty("java.home") + "/bin/java";
+        String classpath = System.getProperty("java.class.path");
+        for (int[] size : SIZES) {
+            Process child = new ProcessBuilder(java, "-cp", classpath,
+                    "-Delevator.floors=" + size[0], "-Delevator.cars=" + size[1],
+                    "ScalingBenchmark", String.valueOf(requestsPerCar), "--child")
+                    .redirectErrorStream(true).start();
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(child.getInputStream()))) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    System.out.println(line);
+                }
+            }
+            child.waitFor();
+        }
+    }
+
+    private static void runChild(int requestsPerCar) throws Exception {
+        int floors = FloorStart.NUM_FLOORS;
+        int cars = ElevatorStart.NUM_ELEVATORS;
+        int count = requestsPerCar * cars;
+        Random random = new Random(SEED);
+        ArrayList<Request> requests = new ArrayList<>();
+        long interval = TimeUnit.SECONDS.toNanos(30) / cars;
+        for (int i = 0; i < count; i++) {
+            int source = 1 + random.nextInt(floors);
+            int destination = 1 + random.nextInt(floors - 1);
+            if (destination >= source) {
+                destination++;
+            }
+            Request.Direction direction = destination > source ? Request.Direction.UP : Request.Direction.DOWN;
+            requests.add(new Request(LocalTime.ofNanoOfDay(i * interval), source, direction, destination, 0, i == count - 1));
+        }
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long start = System.nanoTime();
+        Simulation simulation = new Simulation(requests, new CostDispatch());
+        long finished = simulation.run(Simulation.MAX_VIRTUAL_TIME);
+        long realMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.setOut(out);
+
+        System.out.printf("%7d %5d %9d %8d %14.1f %12d%s%n", floors, cars, count, simulation.getSchedulerCycles(),
+                simulation.getMeanSchedulerCycleNanos() / 1000.0, realMillis, finished < 0 ? " (did not finish)" : "");
+    }
+}
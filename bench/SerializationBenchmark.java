@@ -0,0 +1,77 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.LocalTime;
+
+/**
+ * Compares the external form of Request, ElevatorStatus and Command against default Java serialization
+ * of the same fields. Prints the encoded size and the average time to write and read one object back.
+ */
+public class SerializationBenchmark {
+    private static final int WARMUP_ITERATIONS = 20000;
+    private static final int ITERATIONS = 100000;
+
+    // the fields these messages had before they were Externalizable
+    private static class DefaultRequest implements Serializable {
+        LocalTime time = LocalTime.parse("02:22:00.15");
+        int sourceFloor = 2;
+        Request.Direction direction = Request.Direction.UP;
+        int destinationFloor = 18;
+        int fault = 0;
+        boolean isLastRequest = false;
+    }
+
+    private static class DefaultElevatorStatus implements Serializable {
+        int number = 1;
+        int currentFloor = 5;
+        int destinationFloor = 18;
+        Elevator.ElevatorState currentState = Elevator.ElevatorState.MOVING;
+        Elevator.ElevatorMovement movement = Elevator.ElevatorMovement.UP;
+    }
+
+    private static class DefaultCommand implements Serializable {
+        Elevator.ElevatorState state = Elevator.ElevatorState.MOVING;
+        Elevator.ElevatorMovement movement = Elevator.ElevatorMovement.UP;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-16s %-10s %8s %12s%n", "Message", "Encoding", "Bytes", "ns/op");
+        run("Request", "default", new DefaultRequest());
+        run("Request", "external", new Request(LocalTime.parse("02:22:00.15"), 2, Request.Direction.UP, 18, 0, false));
+        run("ElevatorStatus", "default", new DefaultElevatorStatus());
+        run("ElevatorStatus", "external", new ElevatorStatus(1, 5, 18, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        run("Command", "default", new DefaultCommand());
+        run("Command", "external", new Command(Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+    }
+
+    private static void run(String message, String encoding, Object object) throws Exception {
+        int size = serialize(object).length;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            deserialize(serialize(object));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            deserialize(serialize(object));
+        }
+        long nanosPerOp = (System.nanoTime() - start) / ITERATIONS;
+        System.out.printf("%-16s %-10s %8d %12d%n", message, encoding, size, nanosPerOp);
+    }
+
+    // one stream per object, the same as each RMI call writing a single message
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
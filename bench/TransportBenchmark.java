@@ -0,0 +1,62 @@
+import java.net.InetSocketAddress;
+import java.rmi.Naming;
+import java.rmi.registry.LocateRegistry;
+import java.util.Arrays;
+
+/**
+ * Measures the round-trip latency of one call on a MessageBuffer over loopback, through an RMI stub
+ * and through the UDP transport. Both servers run in this process but every call still goes through a socket.
+ */
+public class TransportBenchmark {
+    private static final int WARMUP_CALLS = 20000;
+    private static final int CALLS = 50000;
+    private static final int RMI_PORT = 1199;
+    private static final int UDP_PORT = 1200;
+
+    public static void main(String[] args) throws Exception {
+        MessageBuffer<Request> buffer = new MessageBuffer<>();
+
+        LocateRegistry.createRegistry(RMI_PORT);
+        String rmiName = "rmi://localhost:" + RMI_PORT + "/Benchmark";
+        Naming.rebind(rmiName, buffer);
+        @SuppressWarnings("unchecked")
+        SharedDataInterface<Request> rmi = (SharedDataInterface<Request>) Naming.lookup(rmiName);
+
+        UdpServer server = new UdpServer(UDP_PORT);
+        server.bind("Benchmark", buffer, WireCodec.REQUEST);
+        Thread serverThread = new Thread(server, "UDP Server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+        SharedDataInterface<Request> udp = new UdpSharedData<>(new InetSocketAddress("localhost", UDP_PORT), "Benchmark", WireCodec.REQUEST);
+
+        System.out.printf("%-10s %10s %10s %10s%n", "Transport", "mean us", "p50 us", "p99 us");
+        run("RMI", rmi);
+        run("UDP", udp);
+        System.exit(0);
+    }
+
+    // alternates put and remove so the buffer stays small
+    private static void run(String transport, SharedDataInterface<Request> buffer) throws Exception {
+        Request request = new Request(java.time.LocalTime.parse("02:22:00.15"), 2, Request.Direction.UP, 18, 0, false);
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call(buffer, request, i);
+        }
+        long[] nanos = new long[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            long start = System.nanoTime();
+            call(buffer, request, i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double mean = Arrays.stream(nanos).average().orElse(0) / 1000;
+        System.out.printf("%-10s %10.1f %10.1f %10.1f%n", transport, mean, nanos[CALLS / 2] / 1000.0, nanos[CALLS * 99 / 100] / 1000.0);
+    }
+
+    private static void call(SharedDataInterface<Request> buffer, Request request, int i) throws Exception {
+        if (i % 2 == 0) {
+            buffer.put(request);
+        } else {
+            buffer.remove();
+        }
+    }
+}
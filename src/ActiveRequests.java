@@ -0,0 +1,200 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The requests the scheduler has received and not yet delivered, keyed by the id each one is given when it arrives.
+ * Requests are held in slots that are reused as they leave and found from their id through an open-addressing table
+ * of ints, so delivering, abandoning or re-provisioning a request takes the same time however many are outstanding.
+ * The cars' queues stay in the scheduler's lists, which the dispatch strategies score and insert into.
+ */
+public class ActiveRequests {
+    private static final int NONE = -1;
+    private static final int INITIAL_SLOTS = 16;
+    public static final long NEVER_MOVED = Long.MIN_VALUE;
+
+    private int nextId = 1;
+    private int size = 0;
+    private int[] table = new int[2 * INITIAL_SLOTS]; // linear probing by id, each entry is a slot number + 1, 0 if empty
+    private int shift = Integer.numberOfLeadingZeros(table.length) + 1; // takes the top bits of the hash, one per table bit
+
+    // index is for slot number
+    private int[] ids = new int[INITIAL_SLOTS];
+    private Request[] requests = new Request[INITIAL_SLOTS];
+    private long[] movedAt = new long[INITIAL_SLOTS]; // clock reading when moved to another car, NEVER_MOVED if not
+    private int[] nextFree = new int[INITIAL_SLOTS]; // links the slots given back
+    private int usedSlots = 0; // slots handed out at least once
+    private int freeSlots = NONE; // first slot given back
+
+    /**
+     * Adds a request, giving it the next id unless it already has one, as a re-provisioned request does.
+     * @return The request's id.
+     */
+    public int add(Request request) {
+        if (request.getId() == 0) {
+            request.setId(nextId++);
+        }
+        int id = request.getId();
+        if (find(id) != NONE) {
+            return id;
+        }
+        if (2 * (size + 1) > table.length) {
+            rehash(2 * table.length);
+        }
+
+        int slot = newSlot();
+        ids[slot] = id;
+        requests[slot] = request;
+        movedAt[slot] = NEVER_MOVED;
+        int position = home(id);
+        while (table[position] != 0) {
+            position = (position + 1) & (table.length - 1);
+        }
+        table[position] = slot + 1;
+        size++;
+        return id;
+    }
+
+    /**
+     * @return The request with this id, or null if it isn't active.
+     */
+    public Request get(int id) {
+        int slot = find(id);
+        return slot == NONE ? null : requests[slot];
+    }
+
+    public boolean contains(int id) {
+        return find(id) != NONE;
+    }
+
+    /**
+     * Removes a request that was delivered, abandoned or handed back to the floors.
+     * @return The request, or null if it wasn't active.
+     */
+    public Request remove(int id) {
+        int position = position(id);
+        if (position == NONE) {
+            return null;
+        }
+        int slot = table[position] - 1;
+        Request request = requests[slot];
+        delete(position);
+        requests[slot] = null;
+        nextFree[slot] = freeSlots;
+        freeSlots = slot;
+        size--;
+        return request;
+    }
+
+    /**
+     * Notes that a request still waiting to be picked up was moved to a better placed car.
+     * @param now The clock reading, returned by getMovedAt() from then on.
+     */
+    public void moved(int id, long now) {
+        int slot = find(id);
+        if (slot != NONE) {
+            movedAt[slot] = now;
+        }
+    }
+
+    /**
+     * @return The clock reading when the request was last moved to another car, or NEVER_MOVED if it
+     * hasn't been or isn't active.
+     */
+    public long getMovedAt(int id) {
+        int slot = find(id);
+        return slot == NONE ? NEVER_MOVED : movedAt[slot];
+    }
+
+    /**
+     * @return Every active request in the order they arrived.
+     */
+    public List<Request> toList() {
+        ArrayList<Request> list = new ArrayList<>(size);
+        for (int slot = 0; slot < usedSlots; slot++) {
+            if (requests[slot] != null) {
+                list.add(requests[slot]);
+            }
+        }
+        list.sort(Comparator.comparingInt(Request::getId));
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int home(int id) {
+        return (id * 0x9E3779B9) >>> shift;
+    }
+
+    // the table position holding the id, or NONE
+    private int position(int id) {
+        for (int position = home(id); table[position] != 0; position = (position + 1) & (table.length - 1)) {
+            if (ids[table[position] - 1] == id) {
+                return position;
+            }
+        }
+        return NONE;
+    }
+
+    private int find(int id) {
+        int position = position(id);
+        return position == NONE ? NONE : table[position] - 1;
+    }
+
+    // empties a table position, shifting back later entries of the same run that would otherwise not be found
+    private void delete(int position) {
+        int mask = table.length - 1;
+        int next = position;
+        while (true) {
+            next = (next + 1) & mask;
+            if (table[next] == 0) {
+                break;
+            }
+            int home = home(ids[table[next] - 1]);
+            // the entry can fill the gap unless its home is cyclically after the gap and at or before where it is
+            boolean homeBetween = position <= next ? position < home && home <= next : position < home || home <= next;
+            if (!homeBetween) {
+                table[position] = table[next];
+                position = next;
+            }
+        }
+        table[position] = 0;
+    }
+
+    private void rehash(int length) {
+        table = new int[length];
+        shift = Integer.numberOfLeadingZeros(length) + 1;
+        for (int slot = 0; slot < usedSlots; slot++) {
+            if (requests[slot] != null) {
+                int position = home(ids[slot]);
+                while (table[position] != 0) {
+                    position = (position + 1) & (length - 1);
+                }
+                table[position] = slot + 1;
+            }
+        }
+    }
+
+    private int newSlot() {
+        if (freeSlots != NONE) {
+            int slot = freeSlots;
+            freeSlots = nextFree[slot];
+            return slot;
+        }
+        if (usedSlots == ids.length) {
+            int length = 2 * ids.length;
+            ids = Arrays.copyOf(ids, length);
+            requests = Arrays.copyOf(requests, length);
+            movedAt = Arrays.copyOf(movedAt, length);
+            nextFree = Arrays.copyOf(nextFree, length);
+        }
+        return usedSlots++;
+    }
+}
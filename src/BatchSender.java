@@ -0,0 +1,37 @@
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+
+/**
+ * A local outbox that forwards its messages to a remote buffer in batches.
+ * Messages put while a batch is being sent are forwarded together in the next putAll,
+ * so every producer in the process shares one RMI call instead of making one each.
+ */
+public class BatchSender<T> extends MessageBuffer<T> implements Runnable {
+    private static final long WAIT_TIME = 60000;
+    private final SharedDataInterface<T> destination;
+
+    public BatchSender(SharedDataInterface<T> destination) throws RemoteException {
+        this.destination = destination;
+        // only used within this process, so it doesn't need to accept remote calls
+        UnicastRemoteObject.unexportObject(this, true);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                T first = take(WAIT_TIME);
+                if (first == null) {
+                    continue;
+                }
+                ArrayList<T> batch = new ArrayList<>();
+                batch.add(first);
+                batch.addAll(drainTo(getCapacity()));
+                destination.putAll(batch);
+            } catch (RemoteException e) {
+                Error.handleError(e);
+            }
+        }
+    }
+}
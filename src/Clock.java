@@ -0,0 +1,34 @@
+/**
+ * The single source of time for the scheduler, elevators and floors. Time is monotonic, so measurements are not
+ * affected by changes to the wall clock, and may run faster than real time for quick load and soak tests.
+ */
+public interface Clock {
+    Clock SYSTEM = new ScaledClock(1);
+
+    /**
+     * @return The current time in nanoseconds, only meaningful relative to other readings of the same clock.
+     */
+    long nanoTime();
+
+    /**
+     * Sleeps for an amount of this clock's time.
+     * @param millis How long to sleep in this clock's milliseconds.
+     */
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Converts this clock's time to real time, for timed waits on buffers and queues.
+     * @param millis An amount of this clock's time in milliseconds.
+     * @return The same amount of real time in milliseconds, at least 1 if millis is positive.
+     */
+    long toRealMillis(long millis);
+
+    /**
+     * Creates the clock set by the elevator.timeScale system property, how many times faster than real time it
+     * runs. The default of 1 is real time. Every subsystem must be started with the same scale.
+     */
+    static Clock fromProperty() {
+        double scale = Double.parseDouble(System.getProperty("elevator.timeScale", "1"));
+        return scale == 1 ? SYSTEM : new ScaledClock(scale);
+    }
+}
@@ -1,12 +1,29 @@
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
-public class Command implements Serializable {
-    private final Elevator.ElevatorState state;
-    private final Elevator.ElevatorMovement movement;
+public class Command implements Externalizable {
+    private Elevator.ElevatorState state;
+    private Elevator.ElevatorMovement movement;
+    private int targetFloor; // for MOVING, the floor to keep moving to without further commands, 0 to move one floor
+
+    // needed by Externalizable, fields are filled in by readExternal
+    public Command(){
+    }
 
     public Command(Elevator.ElevatorState state, Elevator.ElevatorMovement movement){
+        this(state, movement, 0);
+    }
+
+    /**
+     * @param targetFloor For MOVING, the floor the elevator moves to on its own, reporting each floor it reaches.
+     *                    0 moves it a single floor in the given direction.
+     */
+    public Command(Elevator.ElevatorState state, Elevator.ElevatorMovement movement, int targetFloor){
         this.state = state;
         this.movement = movement;
+        this.targetFloor = targetFloor;
     }
 
     public Elevator.ElevatorState getState() {
@@ -17,8 +34,43 @@ public class Command implements Serializable {
         return movement;
     }
 
+    public int getTargetFloor() {
+        return targetFloor;
+    }
+
+    /**
+     * Packs the command into a single int: 8 bits each for the state and movement ordinals, then the target floor
+     * in 16 bits as in ElevatorStatus. This is both the external form and the UDP transport's encoding.
+     */
+    public int pack() {
+        return (state.ordinal() << 24) | (movement.ordinal() << 16) | (targetFloor & 0xFFFF);
+    }
+
+    public static Command unpack(int packed) {
+        return new Command(
+                Elevator.ElevatorState.values()[packed >>> 24],
+                Elevator.ElevatorMovement.values()[(packed >>> 16) & 0xFF],
+                packed & 0xFFFF);
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(pack());
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        Command command = unpack(in.readInt());
+        state = command.state;
+        movement = command.movement;
+        targetFloor = command.targetFloor;
+    }
+
     @Override
     public String toString(){
+        if (targetFloor != 0) {
+            return String.format("State: %s, Movement: %s, Target Floor: %d", state, movement, targetFloor);
+        }
         return String.format("State: %s, Movement: %s", state, movement);
     }
 }
@@ -0,0 +1,78 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scores an elevator by how much assigning the request would add to the total delivery time of its passengers,
+ * in milliseconds: the new passenger's own delivery time plus the delay to everyone already queued.
+ * Plays out the elevator's stops in the same LOOK order as the scheduler, charging the elevator's own sleep times:
+ * one MOVING sleep per floor travelled and one DOORS_OPEN sleep per stop.
+ */
+public class CostDispatch implements DispatchStrategy {
+    private static final int FLOOR_TIME = Elevator.ElevatorState.MOVING.getSleepTime();
+    private static final int STOP_TIME = Elevator.ElevatorState.DOORS_OPEN.getSleepTime();
+
+    @Override
+    public int score(ElevatorStatus status, List<RequestPickedUpPair> queue, Request request) {
+        long startTime;
+        // the elevator finishes what it is doing before taking a new command, on average half way through
+        switch (status.getCurrentState()) {
+            case MOVING:
+                startTime = FLOOR_TIME / 2;
+                break;
+            case DOORS_OPEN:
+                startTime = STOP_TIME / 2;
+                break;
+            case IDLE:
+                startTime = 0;
+                break;
+            default:
+                return Integer.MAX_VALUE; // faulted or shut down
+        }
+
+        long without = totalDeliveryTime(status, queue, null, startTime);
+        long with = totalDeliveryTime(status, queue, request, startTime);
+        return (int) Math.min(with - without, Integer.MAX_VALUE - 1);
+    }
+
+    // a request is only moved if that saves at least two stops' worth of time, less lets requests bounce between
+    // elevators as their statuses change
+    @Override
+    public int reassignMargin() {
+        return 2 * STOP_TIME;
+    }
+
+    // plays out the elevator's stops on copies of its requests and sums the time each one is dropped off
+    private static long totalDeliveryTime(ElevatorStatus status, List<RequestPickedUpPair> queue, Request extra, long time) {
+        ArrayList<RequestPickedUpPair> requests = new ArrayList<>(queue.size() + 1);
+        for (RequestPickedUpPair pair : queue) {
+            requests.add(new RequestPickedUpPair(pair.getRequest(), pair.isPickedUp()));
+        }
+        if (extra != null) {
+            requests.add(new RequestPickedUpPair(extra, false));
+        }
+        SweepStops stops = new SweepStops();
+        stops.rebuild(requests);
+        if (status.getCurrentState() == Elevator.ElevatorState.MOVING) {
+            stops.setDirection(status.getMovement());
+        }
+
+        ArrayList<RequestPickedUpPair> pickedUp = new ArrayList<>();
+        ArrayList<RequestPickedUpPair> droppedOff = new ArrayList<>();
+        int floor = status.getCurrentFloor();
+        long total = 0;
+        // every stop picks up or drops off someone, the bound only guards against a bad queue
+        for (int stopsLeft = 2 * requests.size() + 2; !requests.isEmpty() && stopsLeft > 0; stopsLeft--) {
+            int stop = stops.nextStop(floor);
+            if (stop == -1) {
+                break; // nothing left to stop for, the rest can't be delivered
+            }
+            time += (long) Math.abs(stop - floor) * FLOOR_TIME + STOP_TIME;
+            floor = stop;
+            stops.nextStop(floor); // turns the elevator around if this is the end of its sweep, as the scheduler does on arrival
+            stops.serve(floor, requests, pickedUp, droppedOff);
+            total += time * droppedOff.size();
+            droppedOff.clear();
+        }
+        return total;
+    }
+}
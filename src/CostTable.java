@@ -0,0 +1,81 @@
+import java.util.List;
+
+/**
+ * Keeps every elevator's score for each kind of request, as grouped by DispatchStrategy.scoreKey(), until the
+ * elevator's status or queue changes. A burst of requests between status reports is then assigned with one lookup
+ * per elevator, and only the elevator that took the last request is scored again. Scores are worked out the first
+ * time they're asked for, so the table gives exactly the strategy's own scores.
+ */
+public class CostTable {
+    private final DispatchStrategy dispatch;
+    private final int[][] scores; // index is for the score key, then elevator number, null until a request has the key
+    private final long[][] versions; // the FleetState version each score was worked out at, 0 if never
+    private long hits = 0;
+    private long misses = 0;
+
+    public CostTable(DispatchStrategy dispatch) {
+        this.dispatch = dispatch;
+        scores = new int[dispatch.scoreKeys()][];
+        versions = new long[dispatch.scoreKeys()][];
+    }
+
+    /**
+     * Fills in every elevator's score for a request as DispatchStrategy.scoreAll() does, scoring only the elevators
+     * that changed since a request with the same key was last scored. When every elevator has changed, they are
+     * scored with one call to DispatchStrategy.scoreAll(), which a strategy can make faster than scoring each one.
+     */
+    public void scoreAll(FleetState fleet, List<? extends List<RequestPickedUpPair>> queues, Request request, int[] out) {
+        int key = dispatch.scoreKey(request);
+        if (key < 0) {
+            dispatch.scoreAll(fleet, queues, request, out);
+            return;
+        }
+        if (scores[key] == null) {
+            scores[key] = new int[fleet.size()];
+            versions[key] = new long[fleet.size()];
+        }
+        int[] keyScores = scores[key];
+        long[] keyVersions = versions[key];
+        int stale = 0;
+        for (int i = 0; i < keyVersions.length; i++) {
+            if (keyVersions[i] != fleet.getVersion(i)) {
+                stale++;
+            }
+        }
+        if (stale == keyScores.length) {
+            // nothing to reuse, so the strategy scores the whole fleet in one call
+            dispatch.scoreAll(fleet, queues, request, keyScores);
+            for (int i = 0; i < keyVersions.length; i++) {
+                keyVersions[i] = fleet.getVersion(i);
+            }
+            misses += stale;
+            System.arraycopy(keyScores, 0, out, 0, keyScores.length);
+            return;
+        }
+        for (int i = 0; i < keyScores.length; i++) {
+            long version = fleet.getVersion(i);
+            if (keyVersions[i] == version) {
+                hits++;
+            } else {
+                keyScores[i] = fleet.isAvailable(i) ? dispatch.score(fleet.getStatus(i), queues.get(i), request) : Integer.MAX_VALUE;
+                keyVersions[i] = version;
+                misses++;
+            }
+            out[i] = keyScores[i];
+        }
+    }
+
+    /**
+     * @return How many elevator scores were reused.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return How many elevator scores were worked out.
+     */
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.List;
+
+/**
+ * Decides which elevator serves a new floor request and where the request goes in that elevator's queue.
+ * The scheduler scores every working elevator and assigns the request to the one with the lowest score.
+ */
+public interface DispatchStrategy {
+    /**
+     * Scores how well an elevator would serve a request, lower is better.
+     * @param status The elevator's last reported status.
+     * @param queue The requests already assigned to the elevator, in the order they will be served.
+     * @param request The new request.
+     * @return The score, or Integer.MAX_VALUE if the elevator can't serve the request.
+     */
+    int score(ElevatorStatus status, List<RequestPickedUpPair> queue, Request request);
+
+    /**
+     * Scores every elevator in the fleet for a request in one call, by default one score() per elevator.
+     * @param fleet The elevators' last reported statuses.
+     * @param queues The requests already assigned to each elevator, index is for elevator number - 1.
+     * @param request The new request.
+     * @param scores Filled with each elevator's score, Integer.MAX_VALUE for one that hasn't reported or is shut down.
+     */
+    default void scoreAll(FleetState fleet, List<? extends List<RequestPickedUpPair>> queues, Request request, int[] scores) {
+        for (int i = 0; i < fleet.size(); i++) {
+            scores[i] = fleet.isAvailable(i) ? score(fleet.getStatus(i), queues.get(i), request) : Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Groups requests that get the same score from an elevator, so a CostTable can reuse the score until the
+     * elevator's status or queue changes. By default the source and destination floors.
+     * @return A key between 0 and scoreKeys() - 1, or -1 if the request's score can't be kept.
+     */
+    default int scoreKey(Request request) {
+        int floors = FloorStart.NUM_FLOORS + 1;
+        int source = request.getSourceFloor();
+        int destination = request.getDestinationFloor();
+        if (source < 0 || source >= floors || destination < 0 || destination >= floors) {
+            return -1;
+        }
+        return source * floors + destination;
+    }
+
+    /**
+     * @return The number of different keys scoreKey() returns.
+     */
+    default int scoreKeys() {
+        return (FloorStart.NUM_FLOORS + 1) * (FloorStart.NUM_FLOORS + 1);
+    }
+
+    /**
+     * How much lower another elevator's score has to be before a request still waiting to be picked up is moved to
+     * it, so requests don't bounce between elevators whose scores are close. Only worth setting when score() is what
+     * the request adds to the elevator. Integer.MAX_VALUE, the default, never moves a request.
+     */
+    default int reassignMargin() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Adds a request to the queue of the elevator chosen for it, at the end by default.
+     * @param queue The chosen elevator's requests.
+     * @param request The new request.
+     */
+    default void assign(List<RequestPickedUpPair> queue, Request request) {
+        queue.add(new RequestPickedUpPair(request, false));
+    }
+
+    /**
+     * Creates the strategy named by the elevator.dispatch system property, "cost" (the default) or "heuristic".
+     */
+    static DispatchStrategy fromProperty() {
+        String name = System.getProperty("elevator.dispatch", "cost");
+        switch (name) {
+            case "cost":
+                return new CostDispatch();
+            case "heuristic":
+                return new HeuristicDispatch();
+            default:
+                throw new IllegalArgumentException("Unknown elevator.dispatch: " + name);
+        }
+    }
+}
@@ -1,4 +1,7 @@
 import java.rmi.RemoteException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public class Elevator implements Runnable{
     private final int number;
@@ -7,11 +10,15 @@ public class Elevator implements Runnable{
     private ElevatorState currentState = ElevatorState.IDLE;
     private ElevatorMovement currentDirection = ElevatorMovement.STOP;
     private ElevatorStatus currentStatus;
-    private final SharedDataInterface<ElevatorStatus> toScheduler;
+    private final StatusBoardInterface toScheduler;
     private final SharedDataInterface<Command> fromScheduler;
+    private final Clock clock;
     private boolean printedIdle = false;
     private boolean shutdown;
     private boolean respond;
+    private ScheduledExecutorService executor; // set when the elevator runs on a shared executor
+    private ScheduledFuture<?> idleWait; // ends a step's wait for a command on the executor, null when not waiting
+    private boolean commandNoticed; // commandReady() was called since the step last checked for a command
     public enum ElevatorState{
         IDLE(1000),
         DOORS_OPEN(3000 + 5000 + 3000),
@@ -35,8 +42,16 @@ public class Elevator implements Runnable{
         DOWN,
         STOP
     }
-    public Elevator(int number, SharedDataInterface<ElevatorStatus> toScheduler, SharedDataInterface<Command> fromScheduler){
+    public Elevator(int number, StatusBoardInterface toScheduler, SharedDataInterface<Command> fromScheduler){
+        this(number, toScheduler, fromScheduler, Clock.SYSTEM);
+    }
+
+    /**
+     * @param clock Times the elevator's moves, door openings and waits for commands.
+     */
+    public Elevator(int number, StatusBoardInterface toScheduler, SharedDataInterface<Command> fromScheduler, Clock clock){
         this.number = number;
+        this.clock = clock;
         currentFloor = 1;
         destinationFloor = 1;
         this.toScheduler = toScheduler;
@@ -47,8 +62,20 @@ public class Elevator implements Runnable{
         respond = true; // turns off when we get a hard fault
     }
 
+    // waits for the next command for as long as an idle elevator would otherwise sleep,
+    // an elevator on its way to a target floor only checks for a new target and keeps moving
     public Command getCommand() throws RemoteException {
-        return fromScheduler.remove();
+        if (isTravelling()) {
+            return fromScheduler.remove();
+        }
+        return fromScheduler.take(clock.toRealMillis(ElevatorState.IDLE.getSleepTime()));
+    }
+
+    /**
+     * @return Whether the elevator is moving to a target floor it hasn't reached yet, so it needs no command to go on.
+     */
+    public boolean isTravelling() {
+        return respond && currentState == ElevatorState.MOVING && currentFloor != destinationFloor;
     }
 
     public void respondToCommand(Command command){
@@ -56,6 +83,10 @@ public class Elevator implements Runnable{
             System.out.println("Elevator " + number + " got Command: " + command);
             setCurrentState(command.getState());
             currentDirection = command.getMovement();
+            destinationFloor = currentFloor;
+            if (currentState.equals(ElevatorState.MOVING)) {
+                setDestination(command);
+            }
 
             // check fault first
             if (currentState.equals(ElevatorState.SHUTDOWN))
@@ -84,11 +115,32 @@ public class Elevator implements Runnable{
                 System.out.printf("Elevator %d, state %s, direction %s, current floor %d\n", number, currentState, currentDirection, currentFloor);
             }
         }
-        else{
+        else if (!isTravelling()){
             setCurrentState(ElevatorState.IDLE);
         }
     }
 
+    // a command without a target floor moves the elevator one floor in its direction
+    private void setDestination(Command command) {
+        int target = command.getTargetFloor();
+        if (target == 0) {
+            if (currentDirection.equals(ElevatorMovement.UP)) {
+                destinationFloor = currentFloor + 1;
+            } else if (currentDirection.equals(ElevatorMovement.DOWN)) {
+                destinationFloor = currentFloor - 1;
+            }
+            return;
+        }
+        destinationFloor = target;
+        if (target > currentFloor) {
+            currentDirection = ElevatorMovement.UP;
+        } else if (target < currentFloor) {
+            currentDirection = ElevatorMovement.DOWN;
+        } else {
+            currentDirection = ElevatorMovement.STOP;
+        }
+    }
+
     public void applyMovement(){
         if(!currentDirection.equals(ElevatorMovement.STOP)){
             //printedIdle = false;
@@ -106,11 +158,9 @@ public class Elevator implements Runnable{
         if (!respond) return;
 
         try{
-            synchronized (toScheduler) {
-                toScheduler.remove(currentStatus);
-                currentStatus = new ElevatorStatus(number, currentFloor, destinationFloor, currentState, currentDirection);
-                toScheduler.put(currentStatus);
-            }
+            // replaces this elevator's slot on the board, no need to remove the old status first
+            currentStatus = new ElevatorStatus(number, currentFloor, destinationFloor, currentState, currentDirection);
+            toScheduler.put(currentStatus);
         } catch (RemoteException e){
             Error.handleError(e);
         }
@@ -131,8 +181,13 @@ public class Elevator implements Runnable{
     public boolean isPrintedIdle() { return printedIdle; }
     public void setCurrentDirection(ElevatorMovement c) { currentDirection = c; }
     public int getCurrentFloor() { return currentFloor; }
+    public int getDestinationFloor() { return destinationFloor; }
 
-    private void handleState()
+    /**
+     * Acts on the current state and reports it to the scheduler.
+     * @return How long the elevator takes to carry out the state in milliseconds, before it takes the next command.
+     */
+    public long handleState()
     {
         try
         {
@@ -143,13 +198,11 @@ public class Elevator implements Runnable{
                     {
                         // skip until we're responsive again, only move if we're letting the scheduler know
                         // delay a bit so the scheduler isn't completely flooded with attempts before timeout
-                        Thread.sleep(1000);
-                        return;
+                        return 1000;
                     }
                     applyMovement();
                     sendStatus();
-                    Thread.sleep(currentState.getSleepTime());
-                    break;
+                    return currentState.getSleepTime();
                 case TRANSIENT_FAULT:
                     // open doors for an extended period of time
                     System.out.printf("Elevator %d Transient fault simulating: Opening doors and not closing\n", number);
@@ -165,16 +218,21 @@ public class Elevator implements Runnable{
                     sendStatus();
                     respond = false;
                     break;
+                case IDLE:
+                    // no sleep needed, getCommand() already waited for the next command
+                    sendStatus();
+                    break;
                 case DOORS_OPEN:
                     respond = true; // in the case of a transient fault, get respond = true again
                     // no need to break, handle regularly
-                default: // other cases such as open doors or idle
+                default: // other cases such as open doors
                     sendStatus();
-                    Thread.sleep(currentState.getSleepTime());
+                    return currentState.getSleepTime();
             }
         } catch (Exception e){
             Error.handleError(e);
         }
+        return 0;
     }
 
 
@@ -184,7 +242,7 @@ public class Elevator implements Runnable{
             try{
                 Command command = getCommand();
                 respondToCommand(command);
-                handleState();
+                clock.sleep(handleState());
             } catch (Exception e){
                 Error.handleError(e);
             }
@@ -192,4 +250,69 @@ public class Elevator implements Runnable{
 
         System.out.printf("Elevator %d shutting down...\n", number);
     }
+
+    /**
+     * Runs the elevator on a shared executor instead of its own thread. Rather than blocking in getCommand(),
+     * a step that finds no command waits without a thread until commandReady() is called or getCommand() would
+     * have given up, then handles the state and schedules the next step after the state's delay.
+     */
+    public void schedule(ScheduledExecutorService executor) {
+        this.executor = executor;
+        executor.execute(() -> step(clock.nanoTime()));
+    }
+
+    /**
+     * Tells an elevator running on an executor that the scheduler has put a command for it,
+     * so a step waiting for one checks again at once.
+     */
+    public void commandReady() {
+        long waitStart;
+        synchronized (this) {
+            commandNoticed = true;
+            if (idleWait == null || !idleWait.cancel(false)) {
+                return; // not waiting, the next step will find the command
+            }
+            idleWait = null;
+            waitStart = clock.nanoTime();
+        }
+        executor.execute(() -> step(waitStart));
+    }
+
+    private void step(long waitStart) {
+        try{
+            synchronized (this) {
+                commandNoticed = false;
+            }
+            Command command = fromScheduler.remove();
+            long waited = clock.nanoTime() - waitStart;
+            long idleTime = TimeUnit.MILLISECONDS.toNanos(ElevatorState.IDLE.getSleepTime());
+            if (command == null && !isTravelling() && waited < idleTime) {
+                waitForCommand(waitStart, TimeUnit.NANOSECONDS.toMillis(idleTime - waited));
+                return;
+            }
+            respondToCommand(command);
+            long delay = handleState();
+            if (shutdown) {
+                System.out.printf("Elevator %d shutting down...\n", number);
+                return;
+            }
+            executor.schedule(() -> step(clock.nanoTime()), clock.toRealMillis(delay), TimeUnit.MILLISECONDS);
+        } catch (Exception e){
+            Error.handleError(e);
+        }
+    }
+
+    // runs the next step when commandReady() is called or the rest of the idle wait is over
+    private synchronized void waitForCommand(long waitStart, long millis) {
+        if (commandNoticed) {
+            executor.execute(() -> step(waitStart)); // the command came in after the step checked
+            return;
+        }
+        idleWait = executor.schedule(() -> {
+            synchronized (this) {
+                idleWait = null;
+            }
+            step(waitStart);
+        }, clock.toRealMillis(millis), TimeUnit.MILLISECONDS);
+    }
 }
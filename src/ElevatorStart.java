@@ -1,26 +1,42 @@
-import java.rmi.Naming;
+import java.util.ArrayList;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class ElevatorStart {
 
     public static final String ELEVATOR_RMI_TO_SCHEDULER = "rmi://localhost/ElevatorsToScheduler";
-    public static final int NUM_ELEVATORS = 4;
+    public static final String ELEVATOR_RMI_NOTICES = "rmi://localhost/ElevatorNotices";
+    // set with -Delevator.cars, every subsystem must be started with the same value
+    public static final int NUM_ELEVATORS = Integer.getInteger("elevator.cars", 4);
 
     public static void main(String[] args) {
         //gets shared data to write to Scheduler
-        SharedDataInterface<ElevatorStatus> toScheduler = null;
+        StatusBoardInterface toScheduler = null;
+        StatusBatchSender statusSender = null;
+        Clock clock = Clock.fromProperty();
         try{
-            toScheduler = (SharedDataInterface<ElevatorStatus>) Naming.lookup(ELEVATOR_RMI_TO_SCHEDULER);
+            toScheduler = Transport.lookupStatusBoard(ELEVATOR_RMI_TO_SCHEDULER);
+            // elevators post statuses locally, the sender forwards all changed ones in one call
+            statusSender = new StatusBatchSender(NUM_ELEVATORS, toScheduler);
         } catch(Exception e){
             Error.handleError(e);
         }
+        new Thread(statusSender, "Elevator Status Sender").start();
+        // with -Delevator.execution=executor every elevator runs on one shared executor instead of its own thread
+        ScheduledExecutorService executor = Execution.useExecutor() ? Execution.newExecutor("Elevators") : null;
+        ArrayList<Elevator> elevators = new ArrayList<>();
         for (int i = 0; i < NUM_ELEVATORS; i++){
             SharedDataInterface<Command> elevatorFromScheduler = null;
             try{
-                elevatorFromScheduler = (SharedDataInterface<Command>) Naming.lookup(String.format("rmi://localhost/Elevator%dFromScheduler", i + 1));
+                elevatorFromScheduler = Transport.lookup(String.format("rmi://localhost/Elevator%dFromScheduler", i + 1), WireCodec.COMMAND);
             } catch (Exception e){
                 Error.handleError(e);
             }
-            Elevator el = new Elevator(i + 1, toScheduler, elevatorFromScheduler);
+            Elevator el = new Elevator(i + 1, statusSender, elevatorFromScheduler, clock);
+            elevators.add(el);
+            if (executor != null){
+                el.schedule(executor);
+                continue;
+            }
             Thread elevator = new Thread(el, "Elevator " + (i + 1));
             elevator.start();
             try{
@@ -29,5 +45,15 @@ public class ElevatorStart {
                 Error.handleError(e);
             }
         }
+        if (executor != null){
+            // one blocking take wakes whichever elevator the scheduler sends a command, instead of each one checking
+            SharedDataInterface<Integer> notices = null;
+            try{
+                notices = Transport.lookup(ELEVATOR_RMI_NOTICES, WireCodec.INTEGER);
+            } catch (Exception e){
+                Error.handleError(e);
+            }
+            new Thread(new NoticeDrainer(notices, number -> elevators.get(number - 1).commandReady()), "Elevator Notices").start();
+        }
     }
 }
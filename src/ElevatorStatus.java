@@ -1,11 +1,18 @@
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
-public class ElevatorStatus implements Serializable {
-    private final int number;
-    private final int currentFloor;
+public class ElevatorStatus implements Externalizable {
+    private int number;
+    private int currentFloor;
     private int destinationFloor;
-    private final Elevator.ElevatorState currentState;
-    private final Elevator.ElevatorMovement movement;
+    private Elevator.ElevatorState currentState;
+    private Elevator.ElevatorMovement movement;
+
+    // needed by Externalizable, fields are filled in by readExternal
+    public ElevatorStatus(){
+    }
 
     public ElevatorStatus(int number, int currentFloor, int destinationFloor, Elevator.ElevatorState currentState, Elevator.ElevatorMovement movement){
         this.number = number;
@@ -32,6 +39,42 @@ public class ElevatorStatus implements Serializable {
         return movement;
     }
 
+    /**
+     * Packs the status into a single long: 16 bits each for the elevator number, current floor and
+     * destination floor, then 8 bits each for the state and movement ordinals.
+     */
+    public long pack() {
+        return ((long) (number & 0xFFFF) << 48)
+                | ((long) (currentFloor & 0xFFFF) << 32)
+                | ((long) (destinationFloor & 0xFFFF) << 16)
+                | ((long) currentState.ordinal() << 8)
+                | movement.ordinal();
+    }
+
+    public static ElevatorStatus unpack(long packed) {
+        return new ElevatorStatus(
+                (int) (packed >>> 48) & 0xFFFF,
+                (int) (packed >>> 32) & 0xFFFF,
+                (int) (packed >>> 16) & 0xFFFF,
+                Elevator.ElevatorState.values()[(int) (packed >>> 8) & 0xFF],
+                Elevator.ElevatorMovement.values()[(int) packed & 0xFF]);
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(pack());
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        ElevatorStatus status = unpack(in.readLong());
+        number = status.number;
+        currentFloor = status.currentFloor;
+        destinationFloor = status.destinationFloor;
+        currentState = status.currentState;
+        movement = status.movement;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
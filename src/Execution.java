@@ -0,0 +1,29 @@
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses how FloorStart and ElevatorStart run their floors and elevators, set at startup with
+ * -Delevator.execution=threads (the default) or -Delevator.execution=executor.
+ * With threads each floor and elevator blocks in its own thread, and they are started 100 ms apart.
+ * With executor they all run as short non-blocking steps on one ScheduledExecutorService of EXECUTOR_THREADS
+ * threads, started at once, so the thread count and startup time don't grow with the building.
+ * Instead of waiting for their messages they are woken by a NoticeDrainer.
+ */
+public class Execution {
+    public static final String EXECUTION_PROPERTY = "elevator.execution";
+    public static final int EXECUTOR_THREADS = 2;
+
+    public static boolean useExecutor() {
+        return "executor".equalsIgnoreCase(System.getProperty(EXECUTION_PROPERTY, "threads"));
+    }
+
+    /**
+     * @param name Prefix for the executor's thread names.
+     * @return An executor whose threads keep the process alive, as the per-component threads do.
+     */
+    public static ScheduledExecutorService newExecutor(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newScheduledThreadPool(EXECUTOR_THREADS, task -> new Thread(task, name + " " + threadCount.incrementAndGet()));
+    }
+}
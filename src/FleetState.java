@@ -0,0 +1,96 @@
+import java.util.Arrays;
+
+/**
+ * The last reported status of every elevator, held as one primitive array per field instead of one ElevatorStatus
+ * per elevator, so a dispatch strategy can score the whole fleet in a single pass over contiguous memory.
+ * States and movements are kept as enum ordinals. Index is for elevator number - 1.
+ */
+public class FleetState {
+    public static final byte NO_STATUS = -1; // state of an elevator that hasn't reported yet
+
+    // read directly by the scoring loops
+    final int[] currentFloors;
+    final int[] destinationFloors;
+    final byte[] states;
+    final byte[] movements;
+    private final ElevatorStatus[] statuses; // for strategies that score one ElevatorStatus at a time
+    private final long[] versions; // bumped whenever an elevator's status or queue changes, starting at 1
+
+    public FleetState(int elevators) {
+        currentFloors = new int[elevators];
+        destinationFloors = new int[elevators];
+        states = new byte[elevators];
+        movements = new byte[elevators];
+        statuses = new ElevatorStatus[elevators];
+        versions = new long[elevators];
+        Arrays.fill(states, NO_STATUS);
+        Arrays.fill(versions, 1);
+    }
+
+    public int size() {
+        return states.length;
+    }
+
+    /**
+     * @param index Elevator number - 1, the status's own number isn't trusted.
+     */
+    public void set(int index, ElevatorStatus status) {
+        statuses[index] = status;
+        currentFloors[index] = status.getCurrentFloor();
+        destinationFloors[index] = status.getDestinationFloor();
+        states[index] = (byte) status.getCurrentState().ordinal();
+        movements[index] = (byte) status.getMovement().ordinal();
+        versions[index]++;
+    }
+
+    public void setDestinationFloor(int index, int destinationFloor) {
+        destinationFloors[index] = destinationFloor;
+        if (statuses[index] != null) {
+            statuses[index].setDestinationFloor(destinationFloor);
+        }
+        versions[index]++;
+    }
+
+    /**
+     * Records that the requests queued on an elevator changed, so scores from before are stale.
+     */
+    public void queueChanged(int index) {
+        versions[index]++;
+    }
+
+    /**
+     * @return A number that changes whenever the elevator's status or queue does.
+     */
+    public long getVersion(int index) {
+        return versions[index];
+    }
+
+    /**
+     * @return The elevator's last status, or null if it hasn't reported.
+     */
+    public ElevatorStatus getStatus(int index) {
+        return statuses[index];
+    }
+
+    /**
+     * @return Whether the elevator has reported and isn't shut down, so it can be assigned requests.
+     */
+    public boolean isAvailable(int index) {
+        return states[index] != NO_STATUS && states[index] != Elevator.ElevatorState.SHUTDOWN.ordinal();
+    }
+
+    /**
+     * @return The index of the first lowest score, or -1 if every score is Integer.MAX_VALUE.
+     */
+    public static int lowest(int[] scores) {
+        int best = -1;
+        int lowestScore = Integer.MAX_VALUE;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] < lowestScore) {
+                lowestScore = scores[i];
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -1,40 +1,72 @@
 import java.rmi.RemoteException;
-import java.time.Duration;
-import java.time.LocalTime;
-import java.util.ArrayList;
+import java.util.concurrent.ScheduledExecutorService;
 
+/**
+ * Announces the arrivals the scheduler sends a floor. FloorStart hands the floor its requests as they come due.
+ */
 public class Floor implements Runnable{
     private final int number;
-    private final ArrayList<Request> requests; // assumed to be in sorted order of lowest time to greatest
     private final SharedDataInterface<Request> toScheduler;
     private final SharedDataInterface<Integer> fromScheduler;
+    private final Clock clock;
+    private static final long MAX_WAIT_TIME = 60000; // longest wait for an arrival
+    private static final int MAX_ARRIVALS = 64; // most arrivals collected in one check
+    private ScheduledExecutorService executor; // set when the floor runs on a shared executor
 
-    public Floor(int number, ArrayList<Request> requests, SharedDataInterface<Request> toScheduler, SharedDataInterface<Integer> fromScheduler){
+    public Floor(int number, SharedDataInterface<Request> toScheduler, SharedDataInterface<Integer> fromScheduler){
+        this(number, toScheduler, fromScheduler, Clock.SYSTEM);
+    }
+
+    /**
+     * @param clock Times the waits for arrivals.
+     */
+    public Floor(int number, SharedDataInterface<Request> toScheduler, SharedDataInterface<Integer> fromScheduler, Clock clock){
         this.number = number;
-        this.requests = requests;
+        this.clock = clock;
         this.toScheduler = toScheduler;
         this.fromScheduler = fromScheduler;
     }
     @Override
     public void run(){
         while(true){
-            if(!requests.isEmpty()){
-                Duration currentProgramDuration = Duration.between(FloorStart.ACTUAL_PROGRAM_START_TIME, LocalTime.now());
-                Duration requestDuration = Duration.between(FloorStart.getFirstRequestTime(), requests.get(0).getTime());
+            receiveArrival(MAX_WAIT_TIME);
+        }
+    }
 
-                if (currentProgramDuration.compareTo(requestDuration) >= 0) {
-                    putInToScheduler(requests.remove(0));
-                }
-            }
-            Integer msgFromScheduler = getFromScheduler();
-            if (msgFromScheduler != 0){
-                System.out.printf("Floor %d - Elevator %d arrived!\n", number, msgFromScheduler);
-            }
-            try{
-                Thread.sleep(1000);
-            }catch (InterruptedException e){
-                Error.handleError(e);
+    /**
+     * Runs the floor on a shared executor instead of its own thread: arrivals are collected when arrivalsReady()
+     * is called instead of waited for.
+     */
+    public void schedule(ScheduledExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Tells a floor running on an executor that the scheduler has announced an arrival, so it collects them.
+     */
+    public void arrivalsReady() {
+        executor.execute(this::receiveArrivals);
+    }
+
+    // prints every arrival announced so far without waiting
+    private void receiveArrivals() {
+        try{
+            for (Integer elevatorNumber : fromScheduler.drainTo(MAX_ARRIVALS)){
+                System.out.printf("Floor %d - Elevator %d arrived!\n", number, elevatorNumber);
             }
+        } catch (RemoteException e){
+            Error.handleError(e);
+        }
+    }
+
+    /**
+     * Waits for the scheduler to announce an elevator arriving at this floor.
+     * @param timeoutMillis The longest time to wait in milliseconds, 0 only checks.
+     */
+    public void receiveArrival(long timeoutMillis) {
+        Integer msgFromScheduler = getFromScheduler(timeoutMillis);
+        if (msgFromScheduler != 0){
+            System.out.printf("Floor %d - Elevator %d arrived!\n", number, msgFromScheduler);
         }
     }
 
@@ -47,8 +79,11 @@ public class Floor implements Runnable{
         }
     }
     public Integer getFromScheduler(){
+        return getFromScheduler(0);
+    }
+    public Integer getFromScheduler(long timeoutMillis){
         try{
-            Integer msgFromScheduler = fromScheduler.remove();
+            Integer msgFromScheduler = fromScheduler.take(clock.toRealMillis(timeoutMillis));
             if(msgFromScheduler ==null){
                 return 0;
             }
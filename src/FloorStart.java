@@ -1,54 +1,70 @@
 import java.io.File;
-import java.rmi.Naming;
+import java.time.Duration;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class FloorStart {
-    public static final LocalTime ACTUAL_PROGRAM_START_TIME = LocalTime.now();
-
+    private static long programStartTime; // clock reading when the floors started
     private static LocalTime firstRequestTime;
 
+    public static long getProgramStartTime() {
+        return programStartTime;
+    }
+
     public static LocalTime getFirstRequestTime() {
         return firstRequestTime;
     }
     public static final String FLOOR_RMI_TO_SCHEDULER = "rmi://localhost/FloorsToScheduler";
-    public static final int NUM_FLOORS = 22;
+    public static final String FLOOR_RMI_NOTICES = "rmi://localhost/FloorNotices";
+    // set with -Delevator.floors, every subsystem must be started with the same value
+    public static final int NUM_FLOORS = Integer.getInteger("elevator.floors", 22);
 
     public static void main(String[] args){
+        Clock clock = Clock.fromProperty();
+        programStartTime = clock.nanoTime();
+
         //gets shared data to write to Scheduler
         SharedDataInterface<Request> toScheduler = null;
+        BatchSender<Request> requestSender = null;
         try{
-            toScheduler = (SharedDataInterface<Request>) Naming.lookup(FLOOR_RMI_TO_SCHEDULER);
+            toScheduler = Transport.lookup(FLOOR_RMI_TO_SCHEDULER, WireCodec.REQUEST);
+            // floors queue requests locally, the sender forwards everything queued in one call
+            requestSender = new BatchSender<>(toScheduler);
         } catch(Exception e){
             Error.handleError(e);
         }
+        new Thread(requestSender, "Floor Request Sender").start();
 
-        //parses input file, gets shared data to read from Scheduler and starts Threads
-        ArrayList<Request> allRequests = InputParser.parseFile(new File("src/InputFile.txt"));
-        firstRequestTime = allRequests.get(0).getTime();
-        System.out.println("Num requests: " + allRequests.size());
+        //opens the input file, gets shared data to read from Scheduler and starts Threads
+        RequestStream requests = null;
+        try{
+            requests = new RequestStream(new File(args.length > 0 ? args[0] : "src/InputFile.txt"));
+            firstRequestTime = requests.peek().getTime();
+        } catch(Exception e){
+            Error.handleError(e);
+        }
+        // with -Delevator.execution=executor every floor runs on one shared executor instead of its own thread
+        ScheduledExecutorService executor = Execution.useExecutor() ? Execution.newExecutor("Floors") : null;
+        ArrayList<Floor> floors = new ArrayList<>();
         for(int i = 0; i < NUM_FLOORS; i++){
-            //gives requests to Floors
-            ArrayList<Request> floorRequests = new ArrayList<>();
-            for (Request request:allRequests){
-                if (request.getSourceFloor() == i + 1){
-                    floorRequests.add(request);
-                }
-            }
-
             //gets shared data to read from Scheduler
             SharedDataInterface<Integer> floorFromScheduler = null;
             try{
-                floorFromScheduler = (SharedDataInterface<Integer>) Naming.lookup(String.format("rmi://localhost/Floor%dFromScheduler", i + 1));
+                floorFromScheduler = Transport.lookup(String.format("rmi://localhost/Floor%dFromScheduler", i + 1), WireCodec.INTEGER);
             } catch (Exception e){
                 Error.handleError(e);
             }
 
-            // starts Threads
-            Floor f = new Floor(i + 1, floorRequests, toScheduler, floorFromScheduler);
-            Thread floorThread = new Thread(f, "Floor " + (i + 1));
+            // starts Threads, requests are handed to the floors as they come due below
+            Floor f = new Floor(i + 1, requestSender, floorFromScheduler, clock);
+            floors.add(f);
             System.out.printf("Floor %d created\n", (i + 1));
+            if (executor != null){
+                f.schedule(executor);
+                continue;
+            }
+            Thread floorThread = new Thread(f, "Floor " + (i + 1));
             floorThread.start();
             try{
                 Thread.sleep(100);
@@ -56,5 +72,40 @@ public class FloorStart {
                 Error.handleError(e);
             }
         }
+        if (executor != null){
+            // one blocking take wakes whichever floor the scheduler announces an arrival to, instead of each one checking
+            SharedDataInterface<Integer> notices = null;
+            try{
+                notices = Transport.lookup(FLOOR_RMI_NOTICES, WireCodec.INTEGER);
+            } catch (Exception e){
+                Error.handleError(e);
+            }
+            new Thread(new NoticeDrainer(notices, number -> floors.get(number - 1).arrivalsReady()), "Floor Notices").start();
+        }
+        feedRequests(requests, floors, clock);
+    }
+
+    /**
+     * Reads the requests in one pass and has each one's floor send it when it is due, so only the stream's reorder
+     * window is ever held in memory, however long the file is.
+     */
+    private static void feedRequests(RequestStream requests, ArrayList<Floor> floors, Clock clock){
+        int numRequests = 0;
+        try{
+            while (requests.hasNext()){
+                Request request = requests.next();
+                Duration requestDuration = Duration.between(firstRequestTime, request.getTime());
+                long waitTime = requestDuration.minusNanos(clock.nanoTime() - programStartTime).toMillis();
+                if (waitTime > 0){
+                    clock.sleep(waitTime);
+                }
+                // the stream has already skipped requests from floors outside the building
+                floors.get(request.getSourceFloor() - 1).putInToScheduler(request);
+                numRequests++;
+            }
+        } catch (Exception e){
+            Error.handleError(e);
+        }
+        System.out.println("Num requests: " + numRequests);
     }
 }
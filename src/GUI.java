@@ -18,8 +18,13 @@ public class GUI{
     private JLabel totalMovements;
     private ArrayList<Integer>[] carButtons;
     private ArrayList<String>[] floorButtons;
-    private final int FLOORS = 22;
-    private final int ELEVATORS = 4;
+    private final int FLOORS = FloorStart.NUM_FLOORS;
+    private final int ELEVATORS = ElevatorStart.NUM_ELEVATORS;
+    // the grid fills 700 x 525 pixels, growing past that when the cells would be too small to read
+    private final int ROW_HEIGHT = Math.max(15, 525 / FLOORS);
+    private final int COLUMN_WIDTH = Math.max(60, 700 / ELEVATORS);
+    private final int GRID_WIDTH = COLUMN_WIDTH * ELEVATORS;
+    private final int GRID_HEIGHT = ROW_HEIGHT * FLOORS;
 
     public GUI(){
         carButtons = new ArrayList[ELEVATORS];
@@ -30,8 +35,11 @@ public class GUI{
 
         frame = new JFrame("Elevator Display");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setLayout(null);
-        frame.setSize(1200,800);
+        // panels are placed at fixed positions on a content panel that scrolls when the building is large
+        JPanel content = new JPanel(null);
+        content.setPreferredSize(new Dimension(200 + GRID_WIDTH + 300, 100 + GRID_HEIGHT + 175));
+        frame.setContentPane(new JScrollPane(content));
+        frame.setSize(Math.min(200 + GRID_WIDTH + 300, 1200) + 20, Math.min(100 + GRID_HEIGHT + 175, 800) + 25);
 
         createElevatorNums();
         createFloorNums();
@@ -42,12 +50,12 @@ public class GUI{
 
 
         // Adding panels
-        frame.add(elevatorNums, BorderLayout.NORTH);
-        frame.add(floorNums, BorderLayout.WEST);
-        frame.add(elevatorGrid, BorderLayout.CENTER);
-        frame.add(carButtonPanel, BorderLayout.SOUTH);
-        frame.add(floorButtonPanel, BorderLayout.EAST);
-        frame.add(stats);
+        content.add(elevatorNums);
+        content.add(floorNums);
+        content.add(elevatorGrid);
+        content.add(carButtonPanel);
+        content.add(floorButtonPanel);
+        content.add(stats);
 
         frame.setVisible(true);
     }
@@ -55,22 +63,22 @@ public class GUI{
     // create elevatorNums panel
     private void createElevatorNums(){
         elevatorNums = new JPanel(null);
-        elevatorNums.setBounds(0, 0, 1200, 100);
+        elevatorNums.setBounds(0, 0, 200 + GRID_WIDTH + 300, 100);
 
         JLabel elevatorTitle = new JLabel("Elevators");
-        elevatorTitle.setBounds(500, 0, 200, 80);
+        elevatorTitle.setBounds(200 + GRID_WIDTH / 2 - 50, 0, 200, 80);
         elevatorTitle.setFont(new Font(elevatorTitle.getName(), Font.PLAIN, 30));
 
         // Creates the elevator id labels
-        for(int i = 0; i<4; i++){
+        for(int i = 0; i<ELEVATORS; i++){
             JLabel elevatorId = new JLabel(String.valueOf(i+1));
-            elevatorId.setBounds(275+(i*175), 55, 100, 50);
+            elevatorId.setBounds(188+(i*COLUMN_WIDTH)+COLUMN_WIDTH/2, 55, 100, 50);
             elevatorId.setFont(new Font(elevatorId.getName(), Font.PLAIN, 25));
             elevatorNums.add(elevatorId);
         }
 
         JLabel floorButtonLabel = new JLabel("Floor Buttons:");
-        floorButtonLabel.setBounds(900, 55, 150, 50);
+        floorButtonLabel.setBounds(200 + GRID_WIDTH, 55, 150, 50);
         floorButtonLabel.setFont(new Font(floorButtonLabel.getName(), Font.PLAIN, 15));
 
         elevatorNums.add(floorButtonLabel);
@@ -80,20 +88,20 @@ public class GUI{
     // create floorNums panel
     private void createFloorNums() {
         floorNums = new JPanel(null);
-        floorNums.setBounds(0, 100, 200, 700);
+        floorNums.setBounds(0, 100, 200, GRID_HEIGHT + 194);
 
         JLabel floorTitle = new JLabel("Floors");
-        floorTitle.setBounds(0, 200, 200, 80);
+        floorTitle.setBounds(0, Math.min(200, GRID_HEIGHT / 2 - 40), 200, 80);
         floorTitle.setFont(new Font(floorTitle.getName(), Font.PLAIN, 30));
 
-        for(int i = 0; i < 22; i++){
+        for(int i = 0; i < FLOORS; i++){
             JLabel floorId = new JLabel(String.valueOf(i+1));
-            floorId.setBounds(180, 488-(i*23), 30, 30);
+            floorId.setBounds(180, (FLOORS-1-i)*ROW_HEIGHT+ROW_HEIGHT/2-6, 30, 30);
             floorId.setFont(new Font(floorId.getName(), Font.PLAIN, 15));
             floorNums.add(floorId);
         }
         JLabel carButtonLabel = new JLabel("Car Buttons:");
-        carButtonLabel.setBounds(100, 506, 150, 30);
+        carButtonLabel.setBounds(100, GRID_HEIGHT, 150, 30);
         carButtonLabel.setFont(new Font(carButtonLabel.getName(), Font.PLAIN, 15));
 
         floorNums.add(carButtonLabel);
@@ -102,7 +110,7 @@ public class GUI{
 
     private void createElevatorGrid(){
         elevatorGrid = new JPanel(new GridLayout(FLOORS, ELEVATORS));
-        elevatorGrid.setBounds(200, 100, 700, 525);
+        elevatorGrid.setBounds(200, 100, GRID_WIDTH, GRID_HEIGHT);
 
         elevatorCells = new JButton[FLOORS][ELEVATORS];
 
@@ -119,12 +127,12 @@ public class GUI{
 
     public void createCarButtons(){
         carButtonPanel = new JPanel(null);
-        carButtonPanel.setBounds(200, 625, 700, 150);
+        carButtonPanel.setBounds(200, 100 + GRID_HEIGHT, GRID_WIDTH, 150);
 
         carButtonLabels = new JLabel[ELEVATORS];
         for(int i = 0; i<ELEVATORS; i++){
             carButtonLabels[i] = new JLabel();
-            carButtonLabels[i].setBounds(70+(i*170), -40, 100, 100);
+            carButtonLabels[i].setBounds(70+(i*COLUMN_WIDTH), -40, Math.min(100, COLUMN_WIDTH), 100);
             carButtonLabels[i].setFont(new Font(carButtonLabels[i].getName(), Font.PLAIN, 13));
             carButtonPanel.add(carButtonLabels[i]);
         }
@@ -132,12 +140,12 @@ public class GUI{
 
     public void createFloorButtons(){
         floorButtonPanel = new JPanel(null);
-        floorButtonPanel.setBounds(900, 100, 300, 525);
+        floorButtonPanel.setBounds(200 + GRID_WIDTH, 100, 300, GRID_HEIGHT);
 
         floorButtonLabels = new JLabel[FLOORS];
         for(int i = 0; i<FLOORS; i++){
             floorButtonLabels[i] = new JLabel();
-            floorButtonLabels[i].setBounds(0, 478-(i*23), 100, 50);
+            floorButtonLabels[i].setBounds(0, (FLOORS-1-i)*ROW_HEIGHT+ROW_HEIGHT/2-16, 100, 50);
             floorButtonLabels[i].setFont(new Font(floorButtonLabels[i].getName(), Font.PLAIN, 13));
             floorButtonPanel.add(floorButtonLabels[i]);
         }
@@ -145,7 +153,7 @@ public class GUI{
 
     public void createStatsPanel(){
         stats = new JPanel(null);
-        stats.setBounds(900, 625, 300, 150);
+        stats.setBounds(200 + GRID_WIDTH, 100 + GRID_HEIGHT, 300, 150);
 
         completedTime = new JLabel("Completed Time: ");
         completedTime.setBounds(0,0,300,75);
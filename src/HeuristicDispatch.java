@@ -0,0 +1,169 @@
+import java.util.List;
+
+/**
+ * The original scoring rules: the number of floors to the request times 10, adjusted for whether the elevator
+ * is already heading that way, has its doors open or has to stop first, plus a penalty per queued request.
+ */
+public class HeuristicDispatch implements DispatchStrategy {
+    // added to an elevator's score for every request already queued on it, the same cost as an extra stop
+    private static final int QUEUED_REQUEST_PENALTY = 120;
+
+    private static final int IDLE = Elevator.ElevatorState.IDLE.ordinal();
+    private static final int DOORS_OPEN = Elevator.ElevatorState.DOORS_OPEN.ordinal();
+    private static final int MOVING = Elevator.ElevatorState.MOVING.ordinal();
+    private static final int UP = Elevator.ElevatorMovement.UP.ordinal();
+    private static final int DOWN = Elevator.ElevatorMovement.DOWN.ordinal();
+    private static final int STOP = Elevator.ElevatorMovement.STOP.ordinal();
+
+    @Override
+    public int score(ElevatorStatus status, List<RequestPickedUpPair> queue, Request request) {
+        int score = calculateScore(status, request.getSourceFloor());
+        if (score != Integer.MAX_VALUE) {
+            score += queue.size() * QUEUED_REQUEST_PENALTY;
+        }
+        return score;
+    }
+
+    // the score only depends on the source floor
+    @Override
+    public int scoreKey(Request request) {
+        int source = request.getSourceFloor();
+        return source >= 0 && source <= FloorStart.NUM_FLOORS ? source : -1;
+    }
+
+    @Override
+    public int scoreKeys() {
+        return FloorStart.NUM_FLOORS + 1;
+    }
+
+    /**
+     * The rules of calculateScore() for every elevator in one pass over the fleet's arrays. The rules are regrouped
+     * by state, so each elevator takes two or three comparisons on primitives rather than walking the whole chain.
+     */
+    @Override
+    public void scoreAll(FleetState fleet, List<? extends List<RequestPickedUpPair>> queues, Request request, int[] scores) {
+        int sourceFloor = request.getSourceFloor();
+        int[] currentFloors = fleet.currentFloors;
+        int[] destinationFloors = fleet.destinationFloors;
+        byte[] states = fleet.states;
+        byte[] movements = fleet.movements;
+        for (int i = 0; i < states.length; i++) {
+            int floor = currentFloors[i];
+            int destination = destinationFloors[i];
+            int score;
+            if (states[i] == IDLE) {
+                score = floor == sourceFloor ? -1 : Math.abs(floor - sourceFloor) * 10;
+            } else if (states[i] == MOVING) {
+                score = movingScore(floor, destination, movements[i], sourceFloor);
+            } else if (states[i] == DOORS_OPEN) {
+                score = doorsOpenScore(floor, destination, movements[i], sourceFloor);
+            } else {
+                score = Integer.MAX_VALUE; // not reported, faulted or shut down
+            }
+            scores[i] = score == Integer.MAX_VALUE ? score : score + queues.get(i).size() * QUEUED_REQUEST_PENALTY;
+        }
+    }
+
+    private static int movingScore(int floor, int destination, int movement, int sourceFloor) {
+        if (floor == sourceFloor) {
+            return Math.abs(floor - destination) * 20; // has to come back
+        }
+        boolean above = floor > sourceFloor;
+        if (movement == (above ? DOWN : UP)) { // on its way to the source floor
+            boolean stopsFirst = above ? destination > sourceFloor : destination < sourceFloor;
+            return Math.abs(floor - sourceFloor) * 10 + (stopsFirst ? 60 : -1);
+        }
+        if (movement == STOP) {
+            return Integer.MAX_VALUE;
+        }
+        return oppositeScore(floor, destination, above, sourceFloor);
+    }
+
+    private static int doorsOpenScore(int floor, int destination, int movement, int sourceFloor) {
+        if (floor == sourceFloor) {
+            return -1;
+        }
+        boolean above = floor > sourceFloor;
+        if (above ? destination <= floor : destination >= floor) { // next heading towards the source floor
+            boolean stopsFirst = above ? destination > sourceFloor : destination < sourceFloor;
+            return Math.abs(floor - sourceFloor) * 10 + (stopsFirst ? 120 : 61);
+        }
+        if (movement == (above ? UP : DOWN)) {
+            return oppositeScore(floor, destination, above, sourceFloor);
+        }
+        return (Math.abs(floor - destination) + Math.abs(destination - sourceFloor)) * 10 + 120;
+    }
+
+    // going away from the source floor, to its destination and then back
+    private static int oppositeScore(int floor, int destination, boolean above, int sourceFloor) {
+        if (above) {
+            return (Math.abs(destination - floor) + Math.abs(destination - sourceFloor)) * 10;
+        }
+        return (Math.abs(sourceFloor - floor) + Math.abs(sourceFloor - destination)) * 10;
+    }
+
+    public int calculateScore(ElevatorStatus status, int sourceFloor) {
+        int score = 0;
+
+        //ELEVATOR IS ON DESTINATION FLOOR
+        if (status.getCurrentFloor() == sourceFloor && (status.getCurrentState() == Elevator.ElevatorState.IDLE || status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) { //check if elevator is already at destination
+            score = -1;
+
+            //ELEVATOR IS ON ITS WAY TO/PASSING BY DESTINATION FLOOR
+        } else if ((status.getCurrentFloor() > sourceFloor && status.getMovement() == Elevator.ElevatorMovement.DOWN && status.getCurrentState() == Elevator.ElevatorState.MOVING) ||
+                (status.getCurrentFloor() < sourceFloor && status.getMovement() == Elevator.ElevatorMovement.UP && status.getCurrentState() == Elevator.ElevatorState.MOVING)) { //check if elevator is above/below the destination and is on its way down/up
+            if(status.getCurrentFloor() > sourceFloor) { //check if elevator is above source floor
+                if(status.getDestinationFloor() > sourceFloor) { //elevator is going to a floor before reaching source floor
+                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 60; //assign the amount of floors it has to pass through *10 //+120 because it has a stop
+                } else { //elevator is going to a floor after reaching source floor
+                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 - 1; //on the way to prior destination
+                }
+            } else {
+                if (status.getDestinationFloor() < sourceFloor) { //elevator is going to a floor before reaching source floor
+                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 60; //assign the amount of floors it has to pass through *10 //+120 because it has a stop
+                } else { //elevator is going to a floor after reaching source floor
+                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 - 1; //on the way to prior destination
+                }
+            }
+            //ELEVATOR IS ON ITS WAY TO/PASSING BY DESTINATION FLOOR AND DOORS ARE OPEN
+        } else if ((status.getCurrentFloor() > sourceFloor && status.getDestinationFloor() <= status.getCurrentFloor() && (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) ||
+                (status.getCurrentFloor() < sourceFloor && status.getDestinationFloor() >= status.getCurrentFloor() && (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN))) { //check if elevator is above/below the destination and its doors are open
+            if (status.getCurrentFloor() > sourceFloor) { //check if elevator is above source floor
+                if (status.getDestinationFloor() > sourceFloor) { //elevator is going to a floor before reaching source floor
+                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 120; //assign the amount of floors it has to pass through *10 //+120 because it has a stop
+                } else { //elevator is going to a floor after reaching source floor
+                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 61; //on the way to prior destination
+                }
+            } else { //elevator is below source floor
+                if (status.getDestinationFloor() < sourceFloor) { //elevator is going to a floor before reaching source floor
+                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 120; //assign the amount of floors it has to pass through *10 //+120 because it has a stop
+                } else { //elevator is going to a floor after reaching source floor
+                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 61; //on the way to prior destination
+                }
+            }
+            //Prioritizing moving ones over idle ones if they are the same amount floors away from the destination floor
+
+            //ELEVATOR IS IDLE AND ON DIFFERENT FLOOR
+        } else if (status.getCurrentFloor() != sourceFloor && status.getCurrentState() == Elevator.ElevatorState.IDLE) { //check if elevator is idle and on different floor
+            score = Math.abs(sourceFloor - status.getCurrentFloor()) * 10; //assign the amount of floors it has to pass through *10
+
+            //ELEVATOR IS GOING OPPOSITE DIRECTION OF DESTINATION FLOOR
+        } else if (status.getCurrentFloor() < sourceFloor && status.getMovement() == Elevator.ElevatorMovement.DOWN && (status.getCurrentState() == Elevator.ElevatorState.MOVING || status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) { //check if elevator is above the destination and is on its way down
+            score = (Math.abs(sourceFloor - status.getCurrentFloor()) + Math.abs(sourceFloor - status.getDestinationFloor())) * 10; //assign the amount of floors it has to pass throught after reaching inital destination then going to destination*10
+        } else if (status.getCurrentFloor() > sourceFloor && status.getMovement() == Elevator.ElevatorMovement.UP && (status.getCurrentState() == Elevator.ElevatorState.MOVING || status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) { //check if elevator is below the destination and is on its way up
+            score = (Math.abs(status.getDestinationFloor() - status.getCurrentFloor()) + Math.abs(status.getDestinationFloor() - sourceFloor)) * 10; //assign the amount of floors it has to pass throught after reaching inital destination then going to destination*10
+
+        } else if ((status.getCurrentFloor() > sourceFloor && status.getDestinationFloor() >= status.getCurrentFloor() && (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) ||
+                    (status.getCurrentFloor() < sourceFloor && status.getDestinationFloor() <= status.getCurrentFloor() && (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN))) { //check if elevator is above/below the destination and its doors are open
+            score = (Math.abs(status.getCurrentFloor() - status.getDestinationFloor()) + Math.abs(status.getDestinationFloor() - sourceFloor)) * 10 + 120;
+                //Prioritizing moving ones over idle ones if they are the same amount floors away from the destination floor
+            
+            //ELEVATOR IS ON DEST FLOOR BUT ALREADY MOVING TO DIFFERENT FLOOR
+        } else if (status.getCurrentFloor() == sourceFloor && status.getCurrentState() == Elevator.ElevatorState.MOVING) { //check if elevator is on the destination floor but already moving
+            score = (Math.abs(status.getCurrentFloor() - status.getDestinationFloor()) + Math.abs(status.getDestinationFloor() - status.getCurrentFloor())) * 10; //assign the amount of floors it has to pass throught after reaching inital destination then going to destination*10
+        } else {
+            score = Integer.MAX_VALUE; //default score if elevator is bugged
+        }
+        return score;
+    }
+}
@@ -2,30 +2,28 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.time.DateTimeException;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 
 public class InputParser {
+    /**
+     * Reads a whole request file into memory. Use RequestStream for files too large for that.
+     * @return Every request in the file sorted by time, with the last one marked.
+     */
     public static ArrayList<Request> parseFile(File file) {
         ArrayList<Request> requests = new ArrayList<>();
 
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\s+");
-                if (parts.length == 5) {
-                    LocalTime time = LocalTime.parse(parts[0]);
-                    int sourceFloor = Integer.parseInt(parts[1]);
-                    Request.Direction direction = parts[2].equalsIgnoreCase("up") ? Request.Direction.UP : Request.Direction.DOWN;
-                    int destinationFloor = Integer.parseInt(parts[3]);
-                    int fault = Integer.parseInt(parts[4]);
-
-                    Request request = new Request(time, sourceFloor, direction, destinationFloor, fault, false);
+                Request request = parseLine(line);
+                if (request != null) {
                     requests.add(request);
                 }
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (IOException | NumberFormatException | DateTimeException e) {
             e.printStackTrace();
             System.exit(1);
         }
@@ -33,4 +31,85 @@ public class InputParser {
         requests.get(requests.size()-1).setIsLastRequest(true);
         return requests;
     }
+
+    /**
+     * Parses one line of a request file, "hh:mm:ss.s source up|down destination fault".
+     * Fields are found by scanning for whitespace rather than with a regex, as this runs once per line of a trace.
+     * @return The request, or null if the line doesn't have exactly five fields.
+     * @throws NumberFormatException If a floor or fault isn't a number.
+     * @throws DateTimeException If the time isn't valid.
+     */
+    public static Request parseLine(String line) {
+        int[] bounds = new int[10]; // start and end of each field
+        int fields = 0;
+        int i = 0;
+        int length = line.length();
+        while (true) {
+            while (i < length && Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            if (fields == 5) {
+                return null;
+            }
+            bounds[2 * fields] = i;
+            while (i < length && !Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            bounds[2 * fields + 1] = i;
+            fields++;
+        }
+        if (fields != 5) {
+            return null;
+        }
+        LocalTime time = parseTime(line, bounds[0], bounds[1]);
+        int sourceFloor = Integer.parseInt(line, bounds[2], bounds[3], 10);
+        boolean up = bounds[5] - bounds[4] == 2 && line.regionMatches(true, bounds[4], "up", 0, 2);
+        Request.Direction direction = up ? Request.Direction.UP : Request.Direction.DOWN;
+        int destinationFloor = Integer.parseInt(line, bounds[6], bounds[7], 10);
+        int fault = Integer.parseInt(line, bounds[8], bounds[9], 10);
+        return new Request(time, sourceFloor, direction, destinationFloor, fault, false);
+    }
+
+    // parses hh:mm:ss with an optional fraction of up to nine digits
+    private static LocalTime parseTime(CharSequence text, int start, int end) {
+        int[] parts = new int[3]; // hour, minute, second
+        int i = start;
+        for (int part = 0; part < 3; part++) {
+            int digits = 0;
+            while (i < end && isDigit(text.charAt(i)) && digits < 2) {
+                parts[part] = parts[part] * 10 + (text.charAt(i++) - '0');
+                digits++;
+            }
+            char separator = part < 2 ? ':' : '.';
+            if (digits == 0 || (i < end && text.charAt(i) != separator) || (i == end && part < 2)) {
+                throw new DateTimeException("Invalid time: " + text.subSequence(start, end));
+            }
+            if (part < 2) {
+                i++;
+            }
+        }
+        int nanos = 0;
+        if (i < end) {
+            i++; // the '.'
+            int digits = 0;
+            while (i < end && digits < 9 && isDigit(text.charAt(i))) {
+                nanos = nanos * 10 + (text.charAt(i++) - '0');
+                digits++;
+            }
+            if (digits == 0 || i < end) {
+                throw new DateTimeException("Invalid time: " + text.subSequence(start, end));
+            }
+            for (; digits < 9; digits++) {
+                nanos *= 10;
+            }
+        }
+        return LocalTime.of(parts[0], parts[1], parts[2], nanos);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
 }
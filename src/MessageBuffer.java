@@ -1,58 +1,217 @@
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
 import java.util.ArrayList;
-import java.util.Iterator;
 
 public class MessageBuffer<T> extends UnicastRemoteObject implements SharedDataInterface<T> {
-    private final ArrayList<T> messages;
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int MAX_CAPACITY = 1 << 30; // the largest power of two an int can hold
+
+    private final Object[] messages; // ring buffer, length is always a power of two
+    private final int mask;
+    private final OverflowPolicy policy;
+    private int head = 0; // index of the oldest message
+    private volatile int count = 0; // volatile so size() can be read without the lock
+    private Runnable putListener; // optional, run after every put in this process
+
+    // what put() does when the buffer is already at capacity
+    public enum OverflowPolicy {
+        BLOCK,       // wait until a message is removed
+        DROP_OLDEST, // discard the oldest message to make room
+        REJECT       // throw an IllegalStateException
+    }
 
     /**
-     * Constructor initializes the buffer.
+     * Constructor initializes the buffer with the default capacity, blocking when full.
      */
     public MessageBuffer() throws RemoteException {
-        messages = new ArrayList<>();
+        this(DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
     }
+
+    /**
+     * Constructor initializes the buffer.
+     * @param capacity The minimum number of messages held, rounded up to a power of two, at most MAX_CAPACITY.
+     * @param policy What to do when a message is put into a full buffer.
+     */
+    public MessageBuffer(int capacity, OverflowPolicy policy) throws RemoteException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be at most " + MAX_CAPACITY + ": " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        messages = new Object[size];
+        mask = size - 1;
+        this.policy = policy;
+    }
+
     /**
-     * Retrieves and removes the oldest request from the buffer, waiting if no requests are available.
-     * @return The oldest request in the buffer.
+     * Retrieves and removes the oldest request from the buffer without waiting.
+     * @return The oldest request in the buffer, or null if the buffer is empty.
      */
     @Override
     public synchronized T remove() throws RemoteException {
-        if(messages.isEmpty()){
+        if(count == 0){
             return null;
         }
-        return messages.remove(0);
+        return removeOldest();
     }
 
     /**
      * Adds a new request to the buffer and notifies waiting threads.
+     * If the buffer is full the overflow policy decides whether to wait, drop the oldest request or reject.
      * @param message The request to be added to the buffer.
      */
     @Override
     public synchronized void put(T message) throws RemoteException{
-        messages.add(message);
+        if (count == messages.length && !makeRoom()) {
+            return;
+        }
+        messages[(head + count) & mask] = message;
+        count++;
+        notifyAll();
+        notifyPutListener();
+    }
+
+    /**
+     * Adds several requests to the buffer in a single call, applying the overflow policy to each.
+     * @param batch The requests to be added, in order.
+     */
+    @Override
+    public synchronized void putAll(ArrayList<T> batch) throws RemoteException {
+        for (T message : batch) {
+            if (count == messages.length && !makeRoom()) {
+                return;
+            }
+            messages[(head + count) & mask] = message;
+            count++;
+        }
+        notifyAll();
+        notifyPutListener();
+    }
+
+    // applies the overflow policy to a full buffer, returns false if the message should not be added
+    private boolean makeRoom() {
+        switch (policy) {
+            case BLOCK:
+                notifyAll(); // let consumers see anything already added by putAll before waiting
+                try {
+                    while (count == messages.length) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                break;
+            case DROP_OLDEST:
+                removeOldest();
+                break;
+            case REJECT:
+                notifyAll();
+                throw new IllegalStateException("Message buffer full, capacity " + messages.length);
+        }
+        return true;
     }
 
     @Override
     public synchronized T get(int index) throws RemoteException {
-        if (index < 0 || index >= messages.size()) {
+        if (index < 0 || index >= count) {
             return null;
         }
-        return messages.get(index);
+        return elementAt(index);
     }
     @Override
     public synchronized void remove(T message) throws RemoteException {
-        Iterator<T> iterator = messages.iterator();
-        while (iterator.hasNext()) {
-            T msg = iterator.next();
-            if (msg.equals(message)) {
-                iterator.remove();
+        for (int i = 0; i < count; i++) {
+            if (elementAt(i).equals(message)) {
+                // shift the newer messages back to close the gap
+                for (int j = i; j < count - 1; j++) {
+                    messages[(head + j) & mask] = messages[(head + j + 1) & mask];
+                }
+                messages[(head + count - 1) & mask] = null;
+                count--;
+                notifyAll();
                 return; // Assuming we only want to remove the first occurrence
             }
         }
     }
     @Override
-    public synchronized int size(){
-        return messages.size();
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Retrieves and removes the oldest message, waiting until one is put or the timeout expires.
+     * @param timeoutMillis The longest time to wait in milliseconds, 0 or less returns immediately.
+     * @return The oldest message in the buffer, or null if none arrived in time.
+     */
+    @Override
+    public synchronized T take(long timeoutMillis) throws RemoteException {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000;
+        try {
+            while (count == 0) {
+                long remaining = (deadline - System.nanoTime()) / 1_000_000;
+                if (remaining <= 0) {
+                    return null;
+                }
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return removeOldest();
+    }
+
+    /**
+     * Removes up to maxMessages of the oldest messages in a single call.
+     * @param maxMessages The maximum number of messages to remove.
+     * @return The removed messages in the order they were put, empty if the buffer is empty.
+     */
+    @Override
+    public synchronized ArrayList<T> drainTo(int maxMessages) throws RemoteException {
+        int drainCount = Math.min(maxMessages, count);
+        ArrayList<T> drained = new ArrayList<>(drainCount);
+        for (int i = 0; i < drainCount; i++) {
+            drained.add(removeOldest());
+        }
+        return drained;
+    }
+
+    /**
+     * Registers code to run after every put or putAll, e.g. to wake a consumer that waits on several sources.
+     * @param listener Run by the putting thread, so it must not block.
+     */
+    public synchronized void setPutListener(Runnable listener) {
+        putListener = listener;
+    }
+
+    private void notifyPutListener() {
+        if (putListener != null) {
+            putListener.run();
+        }
+    }
+
+    public int getCapacity() {
+        return messages.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int index) {
+        return (T) messages[(head + index) & mask];
+    }
+
+    // caller must hold the lock and have checked the buffer is not empty
+    private T removeOldest() {
+        T message = elementAt(0);
+        messages[head] = null;
+        head = (head + 1) & mask;
+        count--;
+        notifyAll(); // wake any producer blocked on a full buffer
+        return message;
     }
-}
\ No newline at end of file
+}
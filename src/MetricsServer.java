@@ -0,0 +1,104 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Serves a SchedulerMonitor at http://localhost:port/metrics in the Prometheus text format, so the system can be
+ * watched under load with curl or scraped by a monitoring server. Started by Scheduler.main() when
+ * -Delevator.metricsPort is set. It listens on the loopback interface only.
+ */
+public class MetricsServer {
+    public static final String PORT_PROPERTY = "elevator.metricsPort";
+
+    private final HttpServer server;
+    private final SchedulerMonitor monitor;
+
+    public MetricsServer(int port, SchedulerMonitor monitor) throws IOException {
+        this.monitor = monitor;
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/metrics", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = render().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * @return Every counter and gauge in the Prometheus text exposition format.
+     */
+    public String render() {
+        StringBuilder text = new StringBuilder();
+        metric(text, "elevator_request_queue_depth", "gauge", "Requests from the floors waiting for the scheduler", monitor.getRequestQueueDepth());
+        metric(text, "elevator_arrival_queue_depth", "gauge", "Arrivals waiting to be read by the floors", monitor.getArrivalQueueDepth());
+        header(text, "elevator_command_queue_depth", "gauge", "Commands waiting to be read by each car");
+        int[] commandDepths = monitor.getCommandQueueDepths();
+        for (int i = 0; i < commandDepths.length; i++) {
+            sample(text, "elevator_command_queue_depth{car=\"" + (i + 1) + "\"}", commandDepths[i]);
+        }
+        metric(text, "elevator_active_requests", "gauge", "Requests received and not yet delivered", monitor.getActiveRequests());
+        metric(text, "elevator_movements_total", "counter", "Floors moved by all cars", monitor.getMovements());
+        metric(text, "elevator_scheduler_cycles_total", "counter", "Scheduler loop iterations", monitor.getSchedulerCycles());
+        metric(text, "elevator_scheduler_cycle_mean_seconds", "gauge", "Mean real time of a scheduler loop iteration", monitor.getMeanCycleMicros() / 1e6);
+        metric(text, "elevator_scheduler_cycle_p99_seconds", "gauge", "99th percentile real time of a scheduler loop iteration", monitor.getP99CycleMicros() / 1e6);
+        metric(text, "elevator_assignments_total", "counter", "Requests assigned to a car", monitor.getAssignments());
+        metric(text, "elevator_assignments_per_second", "gauge", "Assignments per second over the last minute", monitor.getAssignmentsPerSecond());
+        metric(text, "elevator_reassignments_total", "counter", "Waiting requests moved to a better car", monitor.getReassignments());
+        header(text, "elevator_faults_total", "counter", "Faults handled by the scheduler's timers");
+        sample(text, "elevator_faults_total{type=\"transient\"}", monitor.getTransientFaults());
+        sample(text, "elevator_faults_total{type=\"hard\"}", monitor.getHardFaults());
+        header(text, "elevator_car_utilization", "gauge", "Share of time each car has been moving or had its doors open");
+        double[] utilizations = monitor.getCarUtilizations();
+        for (int i = 0; i < utilizations.length; i++) {
+            sample(text, "elevator_car_utilization{car=\"" + (i + 1) + "\"}", utilizations[i]);
+        }
+        header(text, "elevator_wait_seconds", "summary", "Time from a call being registered to the passenger being picked up");
+        sample(text, "elevator_wait_seconds{quantile=\"0.5\"}", monitor.getP50WaitSeconds());
+        sample(text, "elevator_wait_seconds{quantile=\"0.95\"}", monitor.getP95WaitSeconds());
+        sample(text, "elevator_wait_seconds{quantile=\"0.99\"}", monitor.getP99WaitSeconds());
+        sample(text, "elevator_wait_seconds_sum", monitor.getWaitSumSeconds());
+        sample(text, "elevator_wait_seconds_count", monitor.getWaitCount());
+        metric(text, "elevator_ride_p95_seconds", "gauge", "95th percentile time from pick up to drop off", monitor.getP95RideSeconds());
+        return text.toString();
+    }
+
+    private static void metric(StringBuilder text, String name, String type, String help, double value) {
+        header(text, name, type, help);
+        sample(text, name, value);
+    }
+
+    private static void header(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder text, String name, double value) {
+        text.append(name).append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(String.format(Locale.ROOT, "%.6g", value));
+        }
+        text.append('\n');
+    }
+}
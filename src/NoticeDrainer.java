@@ -0,0 +1,41 @@
+import java.rmi.RemoteException;
+import java.util.function.IntConsumer;
+
+/**
+ * Waits in a single blocking take for the numbers of the elevators or floors the scheduler has just sent something,
+ * and hands each number on so that one collects it. The elevators or floors of a process can then share an executor
+ * without each one checking its own buffer while nothing is sent.
+ */
+public class NoticeDrainer implements Runnable {
+    private static final long WAIT_TIME = 60000;
+    private static final int MAX_NOTICES = 64; // most notices collected in one call
+    private final SharedDataInterface<Integer> notices;
+    private final IntConsumer handler;
+
+    /**
+     * @param notices The buffer the scheduler puts a number into whenever it sends that elevator or floor something.
+     * @param handler Given each number, it must not block.
+     */
+    public NoticeDrainer(SharedDataInterface<Integer> notices, IntConsumer handler) {
+        this.notices = notices;
+        this.handler = handler;
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                Integer first = notices.take(WAIT_TIME);
+                if (first == null) {
+                    continue;
+                }
+                handler.accept(first);
+                for (Integer number : notices.drainTo(MAX_NOTICES)) {
+                    handler.accept(number);
+                }
+            } catch (RemoteException e) {
+                Error.handleError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.IdentityHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows each request through the scheduler, timestamping when the call is registered, assigned to an elevator,
+ * picked up and dropped off, and keeps histograms of the time to assign, the wait (call to pick up) and the ride
+ * (pick up to drop off). Times are nanoseconds on the scheduler's clock, so a simulation reports simulated time.
+ * Safe to read while the scheduler records.
+ */
+public class PassengerMetrics {
+    private static final int REGISTERED = 0; // indexes into a request's timestamps
+    private static final int ASSIGNED = 1;
+    private static final int PICKED_UP = 2;
+    private static final long NOT_YET = Long.MIN_VALUE;
+
+    private final IdentityHashMap<Request, long[]> timestamps = new IdentityHashMap<>(); // requests still in the system
+    private final LatencyHistogram assignTimes = new LatencyHistogram();
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LatencyHistogram rideTimes = new LatencyHistogram();
+    private long abandoned = 0;
+
+    /**
+     * Records a request arriving from a floor. A request re-provisioned after a shutdown keeps its first time.
+     */
+    public synchronized void registered(Request request, long now) {
+        timestamps.computeIfAbsent(request, r -> new long[] {now, NOT_YET, NOT_YET});
+    }
+
+    /**
+     * Records the time to assign, only for a request's first assignment.
+     */
+    public synchronized void assigned(Request request, long now) {
+        long[] times = timestamps.get(request);
+        if (times != null && times[ASSIGNED] == NOT_YET) {
+            times[ASSIGNED] = now;
+            assignTimes.record(now - times[REGISTERED]);
+        }
+    }
+
+    public synchronized void pickedUp(Request request, long now) {
+        long[] times = timestamps.get(request);
+        if (times != null && times[PICKED_UP] == NOT_YET) {
+            times[PICKED_UP] = now;
+            waitTimes.record(now - times[REGISTERED]);
+        }
+    }
+
+    public synchronized void droppedOff(Request request, long now) {
+        long[] times = timestamps.remove(request);
+        if (times != null && times[PICKED_UP] != NOT_YET) {
+            rideTimes.record(now - times[PICKED_UP]);
+        }
+    }
+
+    /**
+     * Stops following a request that will never be delivered, e.g. a passenger on an elevator that shut down.
+     */
+    public synchronized void abandoned(Request request) {
+        if (timestamps.remove(request) != null) {
+            abandoned++;
+        }
+    }
+
+    public LatencyHistogram getAssignTimes() {
+        return assignTimes;
+    }
+
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    public LatencyHistogram getRideTimes() {
+        return rideTimes;
+    }
+
+    public synchronized long getAbandoned() {
+        return abandoned;
+    }
+
+    /**
+     * @return One line for each histogram with its count, mean, p50, p95, p99 and max in seconds.
+     */
+    public String summary() {
+        return format("Time to assign", assignTimes) + "\n"
+                + format("Wait time", waitTimes) + "\n"
+                + format("Ride time", rideTimes);
+    }
+
+    private static String format(String name, LatencyHistogram histogram) {
+        return String.format("%-15s n=%d mean=%.3fs p50=%.3fs p95=%.3fs p99=%.3fs max=%.3fs", name, histogram.getCount(),
+                seconds(histogram.getMean()), seconds(histogram.getValueAtPercentile(50)), seconds(histogram.getValueAtPercentile(95)),
+                seconds(histogram.getValueAtPercentile(99)), seconds(histogram.getMax()));
+    }
+
+    private static double seconds(double nanos) {
+        return nanos / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -1,14 +1,24 @@
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 
-public class Request implements Serializable {
+public class Request implements Externalizable {
+    // bits of the flags byte in the external form
+    private static final int DOWN_FLAG = 1;
+    private static final int LAST_REQUEST_FLAG = 2;
+    public static final int SIZE = 8 + 2 + 2 + 1 + 1; // bytes written by write()
+
     private LocalTime time;
     private int sourceFloor;
     private Direction direction;
     private int destinationFloor;
     private int fault;
     private boolean isLastRequest;
+    private int id; // given by the scheduler when it receives the request, 0 before then, not sent over the wire
     public enum Direction{
         UP,
         DOWN
@@ -21,6 +31,9 @@ public class Request implements Serializable {
         this.fault = fault;
         this.isLastRequest = isLastRequest;
     }
+    // needed by Externalizable, fields are filled in by readExternal
+    public Request(){
+    }
     public boolean isLastRequest(){
         return isLastRequest;
     }
@@ -28,6 +41,14 @@ public class Request implements Serializable {
         this.isLastRequest = isLastRequest;
     }
 
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public LocalTime getTime() {
         return time;
     }
@@ -51,6 +72,55 @@ public class Request implements Serializable {
     public int getFault(){
         return fault;
     }
+    /**
+     * Writes the request as nanos of the day, the two floors as shorts, and one byte each for the flags and fault.
+     * This is both the external form and the UDP transport's encoding.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putLong(time.toNanoOfDay());
+        buffer.putShort((short) sourceFloor);
+        buffer.putShort((short) destinationFloor);
+        int flags = 0;
+        if (direction == Direction.DOWN) {
+            flags |= DOWN_FLAG;
+        }
+        if (isLastRequest) {
+            flags |= LAST_REQUEST_FLAG;
+        }
+        buffer.put((byte) flags);
+        buffer.put((byte) fault);
+    }
+
+    public static Request read(ByteBuffer buffer) {
+        LocalTime time = LocalTime.ofNanoOfDay(buffer.getLong());
+        int sourceFloor = Short.toUnsignedInt(buffer.getShort());
+        int destinationFloor = Short.toUnsignedInt(buffer.getShort());
+        int flags = buffer.get();
+        int fault = buffer.get();
+        Direction direction = (flags & DOWN_FLAG) != 0 ? Direction.DOWN : Direction.UP;
+        return new Request(time, sourceFloor, direction, destinationFloor, fault, (flags & LAST_REQUEST_FLAG) != 0);
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        write(buffer);
+        out.write(buffer.array());
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        byte[] bytes = new byte[SIZE];
+        in.readFully(bytes);
+        Request request = read(ByteBuffer.wrap(bytes));
+        time = request.time;
+        sourceFloor = request.sourceFloor;
+        direction = request.direction;
+        destinationFloor = request.destinationFloor;
+        fault = request.fault;
+        isLastRequest = request.isLastRequest;
+    }
+
     @Override
     public String toString() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
@@ -0,0 +1,129 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a request file lazily, one line at a time, so traces far larger than memory can be replayed.
+ * At most the reorder window of requests is held at once. They come out sorted by time, so a file only has to be
+ * sorted to within that many requests. Reading ahead throws an IllegalStateException at a request earlier than
+ * one already returned. Requests to or from a floor outside the building are skipped with a message.
+ * The last request is marked as InputParser.parseFile() marks it.
+ */
+public class RequestStream implements Iterator<Request>, Closeable {
+    public static final int DEFAULT_REORDER_WINDOW = 4096;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final BufferedReader reader;
+    private final Request[] window; // ring of requests read ahead, sorted by time and then by line
+    private int head = 0; // index of the earliest request in the window
+    private int count = 0;
+    private long lineNumber = 0;
+    private boolean endOfFile = false;
+    private LocalTime lastTime; // time of the last request returned, later ones can't be earlier
+
+    public RequestStream(File file) throws IOException {
+        this(new FileReader(file), DEFAULT_REORDER_WINDOW);
+    }
+
+    /**
+     * @param reorderWindow How many requests are read ahead to put them in time order.
+     */
+    public RequestStream(Reader reader, int reorderWindow) {
+        if (reorderWindow < 1) {
+            throw new IllegalArgumentException("Reorder window must be positive: " + reorderWindow);
+        }
+        this.reader = new BufferedReader(reader, READ_BUFFER_SIZE);
+        window = new Request[reorderWindow];
+    }
+
+    @Override
+    public boolean hasNext() {
+        fill();
+        return count > 0;
+    }
+
+    /**
+     * @return The earliest request not yet returned.
+     */
+    @Override
+    public Request next() {
+        Request request = peek();
+        window[head] = null;
+        head = (head + 1) % window.length;
+        count--;
+        lastTime = request.getTime();
+        fill(); // to find out whether this was the last one
+        if (endOfFile && count == 0) {
+            request.setIsLastRequest(true);
+        }
+        return request;
+    }
+
+    /**
+     * @return The earliest request not yet returned, without removing it.
+     */
+    public Request peek() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return window[head];
+    }
+
+    // reads lines until the window is full or the file ends
+    private void fill() {
+        try {
+            while (!endOfFile && count < window.length) {
+                String line = reader.readLine();
+                if (line == null) {
+                    endOfFile = true;
+                    reader.close();
+                } else {
+                    lineNumber++;
+                    Request request = InputParser.parseLine(line);
+                    if (request != null && !inBuilding(request)) {
+                        System.out.printf("Skipped request on line %d, floors must be 1 to %d: %s\n", lineNumber, FloorStart.NUM_FLOORS, request);
+                    } else if (request != null) {
+                        insert(request);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean inBuilding(Request request) {
+        return request.getSourceFloor() >= 1 && request.getSourceFloor() <= FloorStart.NUM_FLOORS
+                && request.getDestinationFloor() >= 1 && request.getDestinationFloor() <= FloorStart.NUM_FLOORS;
+    }
+
+    // insertion sort from the back, which costs nothing for a request later than all the others
+    private void insert(Request request) {
+        if (lastTime != null && request.getTime().isBefore(lastTime)) {
+            throw new IllegalStateException("Request on line " + lineNumber + " is more than " + window.length + " requests out of order");
+        }
+        int i = count;
+        while (i > 0 && request.getTime().isBefore(window[(head + i - 1) % window.length].getTime())) {
+            window[(head + i) % window.length] = window[(head + i - 1) % window.length];
+            i--;
+        }
+        window[(head + i) % window.length] = request;
+        count++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        endOfFile = true;
+        Arrays.fill(window, null);
+        count = 0;
+        reader.close();
+    }
+}
@@ -0,0 +1,44 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real time from System.nanoTime(), sped up by a constant factor.
+ */
+public class ScaledClock implements Clock {
+    private final double scale;
+    private final long origin = System.nanoTime();
+
+    /**
+     * @param scale How many times faster than real time the clock runs, 100 turns a 10 second move into 0.1 seconds.
+     */
+    public ScaledClock(double scale) {
+        if (!(scale > 0)) {
+            throw new IllegalArgumentException("Time scale must be positive: " + scale);
+        }
+        this.scale = scale;
+    }
+
+    @Override
+    public long nanoTime() {
+        if (scale == 1) {
+            return System.nanoTime();
+        }
+        return origin + (long) ((System.nanoTime() - origin) * scale);
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (millis <= 0) {
+            return;
+        }
+        long nanos = (long) (TimeUnit.MILLISECONDS.toNanos(millis) / scale);
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(nanos), (int) (nanos % 1_000_000));
+    }
+
+    @Override
+    public long toRealMillis(long millis) {
+        if (millis <= 0) {
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil(millis / scale));
+    }
+}
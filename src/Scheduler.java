@@ -1,101 +1,166 @@
-import java.net.MalformedURLException;
-import java.rmi.Naming;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.rmi.RemoteException;
-import java.rmi.registry.LocateRegistry;
 import java.time.Duration;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 public class Scheduler implements Runnable {
     private final SharedDataInterface<Request> fromFloors;
     private final ArrayList<SharedDataInterface<Integer>> toFloors;
-    private final SharedDataInterface<ElevatorStatus> fromElevators;
+    private final StatusBoardInterface fromElevators;
     private final ArrayList<SharedDataInterface<Command>> toElevators;
     private SchedulerState currentState = SchedulerState.IDLE;
-    private final ArrayList<Request> activeRequests;
-    private final ArrayList<ArrayList<RequestPickedUpPair>> elevatorRequests; // index is for elevator number, then next ArrayList stores the requests in sequential order
-    private int unServicedRequest = -1;
+    private final ActiveRequests activeRequests = new ActiveRequests(); // received and not yet delivered, by request id
+    private final ArrayList<ArrayList<RequestPickedUpPair>> elevatorRequests; // index is for elevator number, then next ArrayList stores the requests in the order they were assigned
+    private final ArrayList<SweepStops> elevatorStops; // index is for elevator number, the floors each elevator still has to stop at
+    private final int[] movingTargets; // index is for elevator number, the target floor of the last MOVING command, 0 when not moving
+    private final ArrayList<Request> unServicedRequests = new ArrayList<>(); // requests received this cycle, waiting for an elevator
     private LocalTime firstRequestTime;
-    private LocalTime actualProgramStartScheduler;
+    private long actualProgramStartScheduler; // clock reading when the first request arrived
     private boolean receivedLastRequest = false;
     private boolean doneRequests = false;
-    private int numMovements = 0;
-    private GUI gui;
-    private ArrayList<ElevatorStatus> elevatorStatuses;
-    private HashMap<Integer, LocalTime> elevatorTimers; // key = Elevator (placed once status is moving/open) // val is time when it was placed
-
-    // the amount of time we'll wait in seconds before throwing a fault
-    private final int openTime = (Elevator.ElevatorState.DOORS_OPEN.getSleepTime()/1000) + 5;
-    private final int moveTime = (Elevator.ElevatorState.MOVING.getSleepTime()/1000) + 5;
-
+    private int numMovements = 0; // floors moved by all elevators, counted from their statuses
+    private final PassengerMetrics metrics = new PassengerMetrics();
+    private final SchedulerMonitor monitor;
+    private final GUI gui; // null when running without a display
+    private final Clock clock;
+    private final FleetState fleet; // every elevator's last status, scored a whole fleet at a time
+    private final int[] scores; // index is for elevator number, each elevator's score for the request being assigned
+    private final CostTable costs; // scores kept until an elevator's status or queue changes
+    private long lastStatusVersion = 0; // board version when statuses were last read
+    private final long[] seenStatusVersions; // index is for elevator number, last status version handled
+    private final DispatchStrategy dispatch;
+    private final WatchdogTimers elevatorTimers; // id = Elevator (armed once status is moving/open), deadline is when we expect a response by
+
+    // the amount of time we'll wait in nanoseconds before throwing a fault
+    private final long openTime = TimeUnit.SECONDS.toNanos((Elevator.ElevatorState.DOORS_OPEN.getSleepTime()/1000) + 5);
+    private final long moveTime = TimeUnit.SECONDS.toNanos((Elevator.ElevatorState.MOVING.getSleepTime()/1000) + 5);
+    // how long a request moved to another elevator stays there before it can be moved again, three floors of travel
+    private final long reassignCooldown = TimeUnit.MILLISECONDS.toNanos(3 * Elevator.ElevatorState.MOVING.getSleepTime());
+
+    // the longest we'll wait for an event before sweeping everything anyway, in case an event was missed
+    private static final long MAX_WAIT_TIME = 1000;
+    private static final int NOTICE_CAPACITY = 1024;
+    private final LinkedBlockingQueue<SchedulerEvent> events = new LinkedBlockingQueue<>();
+
+
+    // what woke the scheduler up, timer expirations are found when the wait for an event times out
+    public enum SchedulerEvent {
+        REQUEST_ARRIVED,
+        STATUS_CHANGED
+    }
 
     public enum SchedulerState {
         IDLE,
         PROCESSING_REQUEST,
         SELECTING_ELEVATOR,
     }
-    public Scheduler(SharedDataInterface<Request> fromFloors, ArrayList<SharedDataInterface<Integer>> toFloors, SharedDataInterface<ElevatorStatus> fromElevators, ArrayList<SharedDataInterface<Command>> toElevators){
+    public Scheduler(SharedDataInterface<Request> fromFloors, ArrayList<SharedDataInterface<Integer>> toFloors, StatusBoardInterface fromElevators, ArrayList<SharedDataInterface<Command>> toElevators){
+        this(fromFloors, toFloors, fromElevators, toElevators, DispatchStrategy.fromProperty());
+    }
+
+    public Scheduler(SharedDataInterface<Request> fromFloors, ArrayList<SharedDataInterface<Integer>> toFloors, StatusBoardInterface fromElevators, ArrayList<SharedDataInterface<Command>> toElevators, DispatchStrategy dispatch){
+        this(fromFloors, toFloors, fromElevators, toElevators, dispatch, Clock.fromProperty(), new GUI());
+    }
+
+    /**
+     * @param clock Where timers and the program duration are measured from.
+     * @param gui The display to update, or null to run without one.
+     */
+    public Scheduler(SharedDataInterface<Request> fromFloors, ArrayList<SharedDataInterface<Integer>> toFloors, StatusBoardInterface fromElevators, ArrayList<SharedDataInterface<Command>> toElevators, DispatchStrategy dispatch, Clock clock, GUI gui){
+        this.dispatch = dispatch;
+        this.clock = clock;
+        this.gui = gui;
         this.fromFloors = fromFloors;
         this.toFloors = toFloors;
         this.fromElevators = fromElevators;
         this.toElevators = toElevators;
-        this.activeRequests = new ArrayList<>();
+        this.monitor = new SchedulerMonitor(fromFloors, toFloors, toElevators, metrics, clock);
         elevatorRequests = new ArrayList<>();
-        elevatorStatuses = new ArrayList<>();
-        elevatorTimers = new HashMap<>();
+        elevatorStops = new ArrayList<>();
+        fleet = new FleetState(ElevatorStart.NUM_ELEVATORS);
+        scores = new int[ElevatorStart.NUM_ELEVATORS];
+        costs = new CostTable(dispatch);
+        elevatorTimers = new WatchdogTimers(ElevatorStart.NUM_ELEVATORS);
+        seenStatusVersions = new long[ElevatorStart.NUM_ELEVATORS];
+        movingTargets = new int[ElevatorStart.NUM_ELEVATORS];
         for(int i = 0; i < ElevatorStart.NUM_ELEVATORS; i++){
             elevatorRequests.add(new ArrayList<>());
-            elevatorStatuses.add(null);
+            elevatorStops.add(new SweepStops());
         }
-        gui = new GUI();
     }
 
-    private void getRequest() throws RemoteException{
-        Request getRequest = fromFloors.remove();
-        if (getRequest != null) {
+    // takes every request the floors have sent since the last cycle
+    private void getRequests() throws RemoteException{
+        ArrayList<Request> newRequests = fromFloors.drainTo(Integer.MAX_VALUE);
+        if (!newRequests.isEmpty()) {
             setCurrentState(SchedulerState.PROCESSING_REQUEST);
+        }
+        for (Request getRequest : newRequests) {
             if(firstRequestTime == null){
                 firstRequestTime = getRequest.getTime();
-                actualProgramStartScheduler = LocalTime.now();
+                actualProgramStartScheduler = clock.nanoTime();
             }
             System.out.println();
             System.out.println("Got Request: " + getRequest);
-            gui.handleFloorButtonPressed(getRequest.getSourceFloor(), getRequest.getDirection().toString());
+            if (gui != null) {
+                gui.handleFloorButtonPressed(getRequest.getSourceFloor(), getRequest.getDirection().toString());
+            }
             if(getRequest.isLastRequest()){
                 receivedLastRequest = true;
                 System.out.println("Received last request");
             }
-            unServicedRequest = activeRequests.size();
+            metrics.registered(getRequest, clock.nanoTime());
+            unServicedRequests.add(getRequest);
             activeRequests.add(getRequest);
         }
-        else{
-            unServicedRequest = -1;
-        }
     }
 
 private void selectElevator() throws RemoteException {
-    // update elevator statuses
-    for (int i = 0; i < ElevatorStart.NUM_ELEVATORS; i++) {
-        ElevatorStatus status = fromElevators.get(i);
+    // update elevator statuses, only reading the elevators whose slot changed since the last read
+    long statusVersion = fromElevators.getVersion();
+    boolean statusChanged = false;
+    for (int i = 0; i < ElevatorStart.NUM_ELEVATORS && statusVersion != lastStatusVersion; i++) {
+        long slotVersion = fromElevators.getVersion(i + 1);
+        if (slotVersion == seenStatusVersions[i]) {
+            continue; // Skip this iteration if the elevator hasn't reported since
+        }
+        seenStatusVersions[i] = slotVersion;
+        ElevatorStatus status = fromElevators.get(i + 1);
         if (status == null) {
             continue; // Skip this iteration if status is null
         }
-        
-        if (!elevatorStatuses.contains(status)) {
-            elevatorStatuses.set((status.getNumber() - 1), status); // Update elevator status
-            System.out.println("\nGot status for Elevator " + status.getNumber() + ": " + status);
-            gui.handleUpdateElevator(status.getNumber(), status.getCurrentFloor(), status.getCurrentState());
+        monitor.statusReceived(status);
+
+        // Restart the timers on every report, an unchanged DOORS_OPEN status means the doors opened again
+        elevatorTimers.cancel(status.getNumber());
 
-            // Clear the existing timers when a status is received
-            elevatorTimers.remove(status.getNumber());
+        // Place a timer if the state is MOVING or DOORS_OPEN, as these states have potential to raise faults
+        if (status.getCurrentState() == Elevator.ElevatorState.MOVING) {
+            elevatorTimers.arm(status.getNumber(), clock.nanoTime() + moveTime);
+        }
+        if (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN) {
+            elevatorTimers.arm(status.getNumber(), clock.nanoTime() + openTime);
+        }
 
-            // Place a timer if the state is MOVING or DOORS_OPEN, as these states have potential to raise faults
-            if (status.getCurrentState() == Elevator.ElevatorState.MOVING) {
-                elevatorTimers.put(status.getNumber(), LocalTime.now().plusSeconds(moveTime));
+        ElevatorStatus previous = fleet.getStatus(i);
+        if (!status.equals(previous)) {
+            // an elevator moving to a target reports every floor, count the floors between any reports we missed too
+            if (previous != null && previous.getCurrentState() != Elevator.ElevatorState.SHUTDOWN
+                    && status.getCurrentState() != Elevator.ElevatorState.SHUTDOWN) {
+                numMovements += Math.abs(status.getCurrentFloor() - previous.getCurrentFloor());
             }
-            if (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN) {
-                elevatorTimers.put(status.getNumber(), LocalTime.now().plusSeconds(openTime));
+            fleet.set(i, status); // Update elevator status
+            statusChanged = true;
+            System.out.println("\nGot status for Elevator " + status.getNumber() + ": " + status);
+            if (gui != null) {
+                gui.handleUpdateElevator(status.getNumber(), status.getCurrentFloor(), status.getCurrentState());
             }
 
             // Reprovision requests if a shutdown status is received
@@ -104,47 +169,44 @@ private void selectElevator() throws RemoteException {
                 for (RequestPickedUpPair request : requestsToReassign) {
                     if (!request.isPickedUp()) {
                         System.out.println("Re-provisioning request: " + request.getRequest());
-                        activeRequests.remove(request.getRequest());
+                        activeRequests.remove(request.getRequest().getId());
                         fromFloors.put(request.getRequest());
                     }
                 }
                 requestsToReassign.clear();
+                fleet.queueChanged(status.getNumber() - 1);
+                elevatorStops.get(status.getNumber() - 1).clear();
+                movingTargets[status.getNumber() - 1] = 0;
             }
         }
     }
+    lastStatusVersion = statusVersion;
+    if (statusChanged) {
+        reassignWaitingRequests();
+    }
 
-    // Assign requests to available elevators
-    if (unServicedRequest != -1) {
-        Request request = activeRequests.get(unServicedRequest);
-        int lowestScore = Integer.MAX_VALUE;
-        ElevatorStatus closestElevatorStatus = null;
-        for (ElevatorStatus status : elevatorStatuses) {
-            if (status != null && status.getCurrentState() != Elevator.ElevatorState.SHUTDOWN) {
-                int score = calculateScore(status, request.getSourceFloor());
-                if (score < lowestScore) {
-                    closestElevatorStatus = status;
-                    lowestScore = score;
-                }
-            }
-        }
+    // Assign the whole batch of new requests, each one seeing the requests already queued by the ones before it
+    for (Request request : unServicedRequests) {
+        costs.scoreAll(fleet, elevatorRequests, request, scores);
+        int closest = FleetState.lowest(scores);
         try {
-            if (closestElevatorStatus != null) {
-                assignToElevator(closestElevatorStatus, request);
+            if (closest != -1) {
+                assignToElevator(fleet.getStatus(closest), request);
             } else {
                 System.out.println("No elevators available: please restart the system");
             }
         } catch (Exception e) {
             System.out.println("Error in assigning elevator: " + e.getMessage());
         }
-        unServicedRequest = -1;
     }
+    unServicedRequests.clear();
     checkEndOfProgram();
 }
 
 
     public void checkEndOfProgram(){
         if(!doneRequests && receivedLastRequest && activeRequests.isEmpty()){
-            Duration currentProgramDuration = Duration.between(actualProgramStartScheduler, LocalTime.now());
+            Duration currentProgramDuration = Duration.ofNanos(clock.nanoTime() - actualProgramStartScheduler);
             LocalTime currentRelativeTime = firstRequestTime.plus(currentProgramDuration);
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
             String formattedTime = currentRelativeTime.format(formatter);
@@ -152,81 +214,101 @@ private void selectElevator() throws RemoteException {
             System.out.println("Finished last Request at " + formattedTime);
             System.out.println("Program Duration: " + currentProgramDuration.toSeconds() + " seconds");
             System.out.println("Total Number of Elevator Movements: " + numMovements);
-            gui.handleCompletedTime(currentProgramDuration);
-            gui.handleTotalMovements(String.valueOf(numMovements));
+            System.out.println(metrics.summary());
+            if (gui != null) {
+                gui.handleCompletedTime(currentProgramDuration);
+                gui.handleTotalMovements(String.valueOf(numMovements));
+            }
             doneRequests = true;
         }
     }
 
-    public int calculateScore(ElevatorStatus status, int sourceFloor) {
-        int score = 0;
-
-        //ELEVATOR IS ON DESTINATION FLOOR
-        if (status.getCurrentFloor() == sourceFloor && (status.getCurrentState() == Elevator.ElevatorState.IDLE || status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) { //check if elevator is already at destination
-            score = -1;
+    private void assignToElevator(ElevatorStatus elevatorStatus, Request request) throws RemoteException{
+        ArrayList<RequestPickedUpPair> requests = elevatorRequests.get(elevatorStatus.getNumber()-1);
+        dispatch.assign(requests, request);
+        fleet.queueChanged(elevatorStatus.getNumber()-1);
+        elevatorStops.get(elevatorStatus.getNumber()-1).rebuild(requests);
+        metrics.assigned(request, clock.nanoTime());
+        monitor.assigned();
+        System.out.println();
+        System.out.println("Assigned Request: " + request + " to Elevator " + elevatorStatus.getNumber());
+    }
 
-            //ELEVATOR IS ON ITS WAY TO/PASSING BY DESTINATION FLOOR
-        } else if ((status.getCurrentFloor() > sourceFloor && status.getMovement() == Elevator.ElevatorMovement.DOWN && status.getCurrentState() == Elevator.ElevatorState.MOVING) ||
-                (status.getCurrentFloor() < sourceFloor && status.getMovement() == Elevator.ElevatorMovement.UP && status.getCurrentState() == Elevator.ElevatorState.MOVING)) { //check if elevator is above/below the destination and is on its way down/up
-            if(status.getCurrentFloor() > sourceFloor) { //check if elevator is above source floor
-                if(status.getDestinationFloor() > sourceFloor) { //elevator is going to a floor before reaching source floor
-                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 60; //assign the amount of floors it has to pass through *10 //+120 because it has a stop
-                } else { //elevator is going to a floor after reaching source floor
-                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 - 1; //on the way to prior destination
-                }
-            } else {
-                if (status.getDestinationFloor() < sourceFloor) { //elevator is going to a floor before reaching source floor
-                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 60; //assign the amount of floors it has to pass through *10 //+120 because it has a stop
-                } else { //elevator is going to a floor after reaching source floor
-                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 - 1; //on the way to prior destination
-                }
+    /**
+     * Moves each request that hasn't been picked up yet to another elevator if that elevator's score for it is now
+     * lower, by more than the strategy's margin, than what the request adds to its own elevator. Called whenever a
+     * status changes, so a request isn't left waiting on an elevator that has fallen behind. A request that was moved
+     * stays on its new elevator for reassignCooldown, so it doesn't bounce between elevators whose scores trade places
+     * as they report each floor. An elevator that lost a request is sent on to its next stop, or stopped if it has
+     * none left.
+     */
+    private void reassignWaitingRequests() throws RemoteException {
+        int margin = dispatch.reassignMargin();
+        if (margin == Integer.MAX_VALUE) {
+            return;
+        }
+        long now = clock.nanoTime();
+        for (int i = 0; i < ElevatorStart.NUM_ELEVATORS; i++) {
+            ArrayList<RequestPickedUpPair> requests = elevatorRequests.get(i);
+            if (!fleet.isAvailable(i)) {
+                continue; // a shut down elevator's requests are re-provisioned instead
             }
-            //ELEVATOR IS ON ITS WAY TO/PASSING BY DESTINATION FLOOR AND DOORS ARE OPEN
-        } else if ((status.getCurrentFloor() > sourceFloor && status.getDestinationFloor() <= status.getCurrentFloor() && (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) ||
-                (status.getCurrentFloor() < sourceFloor && status.getDestinationFloor() >= status.getCurrentFloor() && (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN))) { //check if elevator is above/below the destination and its doors are open
-            if (status.getCurrentFloor() > sourceFloor) { //check if elevator is above source floor
-                if (status.getDestinationFloor() > sourceFloor) { //elevator is going to a floor before reaching source floor
-                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 120; //assign the amount of floors it has to pass through *10 //+120 because it has a stop
-                } else { //elevator is going to a floor after reaching source floor
-                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 61; //on the way to prior destination
+            boolean lostRequest = false;
+            for (int j = 0; j < requests.size(); j++) {
+                RequestPickedUpPair pair = requests.get(j);
+                Request request = pair.getRequest();
+                long movedAt = activeRequests.getMovedAt(request.getId());
+                if (pair.isPickedUp() || (movedAt != ActiveRequests.NEVER_MOVED && now - movedAt < reassignCooldown)) {
+                    continue;
                 }
-            } else { //elevator is below source floor
-                if (status.getDestinationFloor() < sourceFloor) { //elevator is going to a floor before reaching source floor
-                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 120; //assign the amount of floors it has to pass through *10 //+120 because it has a stop
-                } else { //elevator is going to a floor after reaching source floor
-                    score = Math.abs(status.getCurrentFloor() - sourceFloor) * 10 + 61; //on the way to prior destination
+                costs.scoreAll(fleet, elevatorRequests, request, scores);
+                scores[i] = Integer.MAX_VALUE;
+                int best = FleetState.lowest(scores);
+                if (best == -1) {
+                    continue;
                 }
+                // what the request adds to its own elevator, scored as if it were new by leaving it out of the queue
+                requests.remove(j);
+                int current = dispatch.score(fleet.getStatus(i), requests, request);
+                if ((long) scores[best] + margin >= current) {
+                    requests.add(j, pair);
+                    continue;
+                }
+
+                j--;
+                lostRequest = true;
+                fleet.queueChanged(i);
+                elevatorStops.get(i).rebuild(requests);
+                ArrayList<RequestPickedUpPair> bestRequests = elevatorRequests.get(best);
+                dispatch.assign(bestRequests, request);
+                activeRequests.moved(request.getId(), now);
+                fleet.queueChanged(best);
+                elevatorStops.get(best).rebuild(bestRequests);
+                monitor.reassigned();
+                System.out.println();
+                System.out.println("Reassigned Request: " + request + " from Elevator " + (i + 1) + " to Elevator " + (best + 1));
+            }
+            if (lostRequest) {
+                retarget(i + 1);
             }
-            //Prioritizing moving ones over idle ones if they are the same amount floors away from the destination floor
-
-            //ELEVATOR IS IDLE AND ON DIFFERENT FLOOR
-        } else if (status.getCurrentFloor() != sourceFloor && status.getCurrentState() == Elevator.ElevatorState.IDLE) { //check if elevator is idle and on different floor
-            score = Math.abs(sourceFloor - status.getCurrentFloor()) * 10; //assign the amount of floors it has to pass through *10
-
-            //ELEVATOR IS GOING OPPOSITE DIRECTION OF DESTINATION FLOOR
-        } else if (status.getCurrentFloor() < sourceFloor && status.getMovement() == Elevator.ElevatorMovement.DOWN && (status.getCurrentState() == Elevator.ElevatorState.MOVING || status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) { //check if elevator is above the destination and is on its way down
-            score = (Math.abs(sourceFloor - status.getCurrentFloor()) + Math.abs(sourceFloor - status.getDestinationFloor())) * 10; //assign the amount of floors it has to pass throught after reaching inital destination then going to destination*10
-        } else if (status.getCurrentFloor() > sourceFloor && status.getMovement() == Elevator.ElevatorMovement.UP && (status.getCurrentState() == Elevator.ElevatorState.MOVING || status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) { //check if elevator is below the destination and is on its way up
-            score = (Math.abs(status.getDestinationFloor() - status.getCurrentFloor()) + Math.abs(status.getDestinationFloor() - sourceFloor)) * 10; //assign the amount of floors it has to pass throught after reaching inital destination then going to destination*10
-
-        } else if ((status.getCurrentFloor() > sourceFloor && status.getDestinationFloor() >= status.getCurrentFloor() && (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN)) ||
-                    (status.getCurrentFloor() < sourceFloor && status.getDestinationFloor() <= status.getCurrentFloor() && (status.getCurrentState() == Elevator.ElevatorState.DOORS_OPEN))) { //check if elevator is above/below the destination and its doors are open
-            score = (Math.abs(status.getCurrentFloor() - status.getDestinationFloor()) + Math.abs(status.getDestinationFloor() - sourceFloor)) * 10 + 120;
-                //Prioritizing moving ones over idle ones if they are the same amount floors away from the destination floor
-            
-            //ELEVATOR IS ON DEST FLOOR BUT ALREADY MOVING TO DIFFERENT FLOOR
-        } else if (status.getCurrentFloor() == sourceFloor && status.getCurrentState() == Elevator.ElevatorState.MOVING) { //check if elevator is on the destination floor but already moving
-            score = (Math.abs(status.getCurrentFloor() - status.getDestinationFloor()) + Math.abs(status.getDestinationFloor() - status.getCurrentFloor())) * 10; //assign the amount of floors it has to pass throught after reaching inital destination then going to destination*10
-        } else {
-            score = Integer.MAX_VALUE; //default score if elevator is bugged
         }
-        return score;
     }
-    
-    private void assignToElevator(ElevatorStatus elevatorStatus, Request request) throws RemoteException{
-        elevatorRequests.get(elevatorStatus.getNumber()-1).add(new RequestPickedUpPair(request, false));
-        System.out.println();
-        System.out.println("Assigned Request: " + request + " to Elevator " + elevatorStatus.getNumber());
+
+    // after requests were taken off an elevator, drops a moving target that is no longer its next stop so
+    // commandElevators sends it on to the new one, and stops it where it is if it has no stops left
+    private void retarget(int elevatorNumber) throws RemoteException {
+        int currentFloor = fleet.getStatus(elevatorNumber-1).getCurrentFloor();
+        int nextStop = elevatorStops.get(elevatorNumber-1).nextStop(currentFloor);
+        fleet.setDestinationFloor(elevatorNumber-1, nextStop == -1 ? currentFloor : nextStop);
+        if (movingTargets[elevatorNumber-1] == 0 || movingTargets[elevatorNumber-1] == nextStop) {
+            return;
+        }
+        movingTargets[elevatorNumber-1] = 0;
+        if (nextStop == -1) {
+            Command command = new Command(Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP);
+            toElevators.get(elevatorNumber-1).put(command);
+            System.out.println("Sent Command: " + command + " to Elevator " + elevatorNumber);
+        }
     }
 
     void notifyFloorArrived(ElevatorStatus status, int floorNumber) throws RemoteException {
@@ -240,50 +322,71 @@ private void selectElevator() throws RemoteException {
         }
     }
 
-    private void commandLogic(ElevatorStatus elevatorStatus, RequestPickedUpPair requestPair) throws RemoteException{
-        Request request = requestPair.getRequest();
+    private void commandLogic(ElevatorStatus elevatorStatus, ArrayList<RequestPickedUpPair> requests, SweepStops stops) throws RemoteException{
+        int elevatorNumber = elevatorStatus.getNumber();
+        int currentFloor = elevatorStatus.getCurrentFloor();
         Elevator.ElevatorState state;
         Elevator.ElevatorMovement movement;
-        int requestFloor;
-        if (requestPair.isPickedUp()){
-            requestFloor = request.getDestinationFloor();
+        int stopFloor = stops.nextStop(currentFloor);
+        if (stopFloor == -1) {
+            return;
         }
-        else{
-            requestFloor = request.getSourceFloor();
+
+        // a fault is sent with the first command towards the stop of the request it belongs to
+        Request faultyRequest = null;
+        for (RequestPickedUpPair pair : requests) {
+            if (pair.getRequest().getFault() != 0 && SweepStops.stopFloor(pair) == stopFloor) {
+                faultyRequest = pair.getRequest();
+                break;
+            }
         }
 
-        // check if elevator is arriving at a destination
-        if(elevatorStatus.getCurrentFloor() > requestFloor){
+        // an elevator already on its way to the stop keeps going without another command, unless it stopped anyway
+        if (currentFloor != stopFloor && movingTargets[elevatorNumber-1] == stopFloor && faultyRequest == null
+                && elevatorStatus.getCurrentState() != Elevator.ElevatorState.IDLE) {
+            return;
+        }
+
+        // check if elevator is arriving at a stop, otherwise send it to the stop in one command
+        int targetFloor = 0;
+        if(currentFloor > stopFloor){
             state = Elevator.ElevatorState.MOVING;
             movement = Elevator.ElevatorMovement.DOWN;
-            numMovements++;
+            targetFloor = stopFloor;
         }
-        else if(elevatorStatus.getCurrentFloor() < requestFloor){
+        else if(currentFloor < stopFloor){
             state = Elevator.ElevatorState.MOVING;
             movement = Elevator.ElevatorMovement.UP;
-            numMovements++;
+            targetFloor = stopFloor;
         }
         else{
             state = Elevator.ElevatorState.DOORS_OPEN;
             movement = Elevator.ElevatorMovement.STOP;
-            notifyFloorArrived(elevatorStatus, requestFloor);
-            if(requestPair.isPickedUp()){
-                elevatorRequests.get(elevatorStatus.getNumber()-1).remove(0);
-                activeRequests.remove(request);
-                gui.removeCarButtonPressed(elevatorStatus.getNumber(), request.getDestinationFloor());
-
+            notifyFloorArrived(elevatorStatus, stopFloor);
+            ArrayList<RequestPickedUpPair> pickedUp = new ArrayList<>();
+            ArrayList<RequestPickedUpPair> droppedOff = new ArrayList<>();
+            stops.serve(stopFloor, requests, pickedUp, droppedOff);
+            fleet.queueChanged(elevatorNumber-1);
+            for (RequestPickedUpPair pair : droppedOff) {
+                activeRequests.remove(pair.getRequest().getId());
+                metrics.droppedOff(pair.getRequest(), clock.nanoTime());
+                if (gui != null) {
+                    gui.removeCarButtonPressed(elevatorNumber, pair.getRequest().getDestinationFloor());
+                }
             }
-            else{
-                gui.handleCarButtonPressed(elevatorStatus.getNumber(), request.getDestinationFloor());
-                requestPair.setPickedUp(true);
-                gui.removeFloorButtonPressed(request.getSourceFloor(), request.getDirection().toString());
+            for (RequestPickedUpPair pair : pickedUp) {
+                metrics.pickedUp(pair.getRequest(), clock.nanoTime());
+                if (gui != null) {
+                    gui.handleCarButtonPressed(elevatorNumber, pair.getRequest().getDestinationFloor());
+                    gui.removeFloorButtonPressed(pair.getRequest().getSourceFloor(), pair.getRequest().getDirection().toString());
+                }
             }
         }
 
         // if the request contains a nonzero fault value, send the fault as the state
-        int fault = request.getFault();
-        if (fault != 0)
+        if (faultyRequest != null)
         {
+            int fault = faultyRequest.getFault();
             switch (fault)
             {
                 case 1: // Transient fault
@@ -296,17 +399,16 @@ private void selectElevator() throws RemoteException {
                     System.out.println("Error: Fault value " + fault + " found, state not changing");
             }
 
-            request.clearFault(); // remove the fault so it gets treated like a regular request in the future
+            faultyRequest.clearFault(); // remove the fault so it gets treated like a regular request in the future
+            targetFloor = 0;
         }
 
-        Command command = new Command(state, movement);
-        toElevators.get(elevatorStatus.getNumber()-1).put(command);
-        System.out.println("Sent Command: " + command + " to Elevator " + elevatorStatus.getNumber());
-        if(requestPair.isPickedUp()){
-            elevatorStatus.setDestinationFloor(request.getDestinationFloor());
-        } else {
-            elevatorStatus.setDestinationFloor(request.getSourceFloor());
-        }
+        movingTargets[elevatorNumber-1] = targetFloor;
+        Command command = new Command(state, movement, targetFloor);
+        toElevators.get(elevatorNumber-1).put(command);
+        System.out.println("Sent Command: " + command + " to Elevator " + elevatorNumber);
+        int nextStop = stops.nextStop(currentFloor);
+        fleet.setDestinationFloor(elevatorNumber-1, nextStop == -1 ? currentFloor : nextStop);
     }
 
     public void commandElevators() throws RemoteException{
@@ -320,9 +422,7 @@ private void selectElevator() throws RemoteException {
     }
 
     private void commandSpecificElevator(int elevatorNumber) throws RemoteException{
-        RequestPickedUpPair requestPickedUp = elevatorRequests.get(elevatorNumber-1).get(0);
-        //System.out.println(requestPickedUp.getRequest());
-        commandLogic(elevatorStatuses.get(elevatorNumber-1), requestPickedUp);
+        commandLogic(fleet.getStatus(elevatorNumber-1), elevatorRequests.get(elevatorNumber-1), elevatorStops.get(elevatorNumber-1));
     }
 
     public void setCurrentState(SchedulerState state){
@@ -332,25 +432,20 @@ private void selectElevator() throws RemoteException {
 
     public void checkTimers()
     {
-        int[] removeList = new int[ElevatorStart.NUM_ELEVATORS];
-        // check if any of the timers have expired
-        // their values are the time we expect a response by
-        // create a copy of the entries so we can modify the actual map
-        Set<Map.Entry<Integer, LocalTime>> entries = new HashSet<>(elevatorTimers.entrySet());
-        for (Map.Entry<Integer, LocalTime> timer : entries)
+        // fire every timer whose deadline has passed, each is disarmed as it fires and re-armed by handleFault if needed
+        long now = clock.nanoTime();
+        int elevatorId;
+        while ((elevatorId = elevatorTimers.pollExpired(now)) != -1)
         {
-            if (LocalTime.now().isAfter(timer.getValue()))
-            {
-                System.out.println("TIMED OUT:");
-                handleFault(timer.getKey());
-            }
+            System.out.println("TIMED OUT:");
+            handleFault(elevatorId);
         }
     }
 
     // receives an elevator id and handles the fault according to the elevator's last recorded state
     private void handleFault(int elevatorId)
     {
-        ElevatorStatus status = elevatorStatuses.get(elevatorId-1); // adjust for index
+        ElevatorStatus status = fleet.getStatus(elevatorId-1); // adjust for index
 
         try
         {
@@ -360,21 +455,34 @@ private void selectElevator() throws RemoteException {
                     // transient fault, assume something is blocking the door and re-send the open command
                     Command openCommand = new Command(Elevator.ElevatorState.DOORS_OPEN, Elevator.ElevatorMovement.STOP);
                     toElevators.get(elevatorId-1).put(openCommand);
-                    elevatorTimers.put(elevatorId, LocalTime.now().plusSeconds(openTime));
+                    elevatorTimers.arm(elevatorId, clock.nanoTime() + openTime);
+                    monitor.transientFault();
                     System.out.printf("TRANSIENT FAULT: Resending elevator %d command: DOORS_OPEN\n", elevatorId);
-                    gui.handleUpdateElevator(elevatorId, status.getCurrentFloor(), Elevator.ElevatorState.TRANSIENT_FAULT);
+                    if (gui != null) {
+                        gui.handleUpdateElevator(elevatorId, status.getCurrentFloor(), Elevator.ElevatorState.TRANSIENT_FAULT);
+                    }
                     break;
                 case MOVING:
                     // hard fault, tell the elevator to shut down
                     // fix it in person and restart the system when ready
                     Command shutdownCommand = new Command(Elevator.ElevatorState.SHUTDOWN, Elevator.ElevatorMovement.STOP);
                     toElevators.get(elevatorId-1).put(shutdownCommand);
+                    monitor.hardFault();
                     System.out.printf("HARD FAULT: Shutting down elevator %d\n", elevatorId);
-                    gui.handleUpdateElevator(elevatorId, status.getCurrentFloor(), Elevator.ElevatorState.HARD_FAULT);
-                    elevatorTimers.remove(elevatorId);
-                    activeRequests.remove(elevatorRequests.get(elevatorId-1).get(0).getRequest());
+                    if (gui != null) {
+                        gui.handleUpdateElevator(elevatorId, status.getCurrentFloor(), Elevator.ElevatorState.HARD_FAULT);
+                    }
+                    elevatorTimers.cancel(elevatorId);
+                    movingTargets[elevatorId-1] = 0;
+                    // passengers on board can't be delivered, the rest are re-provisioned when the shutdown status arrives
+                    for (RequestPickedUpPair pair : elevatorRequests.get(elevatorId-1)) {
+                        if (pair.isPickedUp()) {
+                            activeRequests.remove(pair.getRequest().getId());
+                            metrics.abandoned(pair.getRequest());
+                        }
+                    }
                     // set shutdown immediately.
-                    elevatorStatuses.set(elevatorId-1, new ElevatorStatus(elevatorId-1, 0, 0, Elevator.ElevatorState.SHUTDOWN, Elevator.ElevatorMovement.STOP));
+                    fleet.set(elevatorId-1, new ElevatorStatus(elevatorId-1, 0, 0, Elevator.ElevatorState.SHUTDOWN, Elevator.ElevatorMovement.STOP));
                     break;
 
                 default:
@@ -387,16 +495,60 @@ private void selectElevator() throws RemoteException {
     }
 
 
+    // called by the floors' buffer whenever a request is put
+    public void onRequestArrived() {
+        events.offer(SchedulerEvent.REQUEST_ARRIVED);
+    }
+
+    // called by the status board whenever an elevator reports
+    public void onStatusChanged() {
+        events.offer(SchedulerEvent.STATUS_CHANGED);
+    }
+
+    // how long until the earliest fault timer expires, capped at MAX_WAIT_TIME
+    long timeUntilNextTimer() {
+        long nanos = elevatorTimers.nanosUntilNext(clock.nanoTime());
+        if (nanos >= TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_TIME)) {
+            return MAX_WAIT_TIME;
+        }
+        return (nanos + 999_999) / 1_000_000; // round up so we never wake just before the deadline
+    }
+
+    /**
+     * One scheduling cycle: takes new requests, reads changed statuses, assigns and commands elevators and fires
+     * any expired fault timers.
+     * @param requestsArrived Whether to take requests from the floors, because they put some since the last cycle
+     *                        or this is a sweep after waiting for an event timed out.
+     */
+    void step(boolean requestsArrived) throws RemoteException {
+        long cycleStart = System.nanoTime();
+        if (requestsArrived) {
+            getRequests();
+        }
+        selectElevator();
+        commandElevators();
+
+        checkTimers();
+        monitor.cycleCompleted(System.nanoTime() - cycleStart, activeRequests.size(), numMovements);
+    }
+
     @Override
     public void run() {
+        // anything put before the listeners were registered
+        onRequestArrived();
+        onStatusChanged();
+        ArrayList<SchedulerEvent> pending = new ArrayList<>();
         while(true){
             try {
-                getRequest();
-                selectElevator();
-                commandElevators();
+                SchedulerEvent event = events.poll(clock.toRealMillis(timeUntilNextTimer()), TimeUnit.MILLISECONDS);
+                pending.clear();
+                if (event != null) {
+                    pending.add(event);
+                }
+                events.drainTo(pending);
 
-                checkTimers();
-                Thread.sleep(100);
+                // a wait that timed out sweeps everything, including the floors' buffer in case an event was missed
+                step(event == null || pending.contains(SchedulerEvent.REQUEST_ARRIVED));
             } catch (RemoteException | InterruptedException e){
                 Error.handleError(e);
             }
@@ -405,44 +557,100 @@ private void selectElevator() throws RemoteException {
 
     public static void main(String[] args) {
         try{
-            LocateRegistry.createRegistry(1099);
+            Transport.startServer();
 
             MessageBuffer<Request> floorsIn = new MessageBuffer<>();
-            Naming.rebind(FloorStart.FLOOR_RMI_TO_SCHEDULER, floorsIn);
+            Transport.bind(FloorStart.FLOOR_RMI_TO_SCHEDULER, floorsIn, WireCodec.REQUEST);
+
+            StatusBoard elevatorsIn = new StatusBoard(ElevatorStart.NUM_ELEVATORS);
+            Transport.bind(ElevatorStart.ELEVATOR_RMI_TO_SCHEDULER, elevatorsIn);
 
-            MessageBuffer<ElevatorStatus> elevatorsIn = new MessageBuffer<>();
-            Naming.rebind(ElevatorStart.ELEVATOR_RMI_TO_SCHEDULER, elevatorsIn);
+            // floors and elevators running on an executor wait on these for the number of the one sent something,
+            // nobody takes them otherwise so they drop the oldest instead of filling up
+            MessageBuffer<Integer> floorNotices = new MessageBuffer<>(NOTICE_CAPACITY, MessageBuffer.OverflowPolicy.DROP_OLDEST);
+            Transport.bind(FloorStart.FLOOR_RMI_NOTICES, floorNotices, WireCodec.INTEGER);
+            MessageBuffer<Integer> elevatorNotices = new MessageBuffer<>(NOTICE_CAPACITY, MessageBuffer.OverflowPolicy.DROP_OLDEST);
+            Transport.bind(ElevatorStart.ELEVATOR_RMI_NOTICES, elevatorNotices, WireCodec.INTEGER);
 
             ArrayList<SharedDataInterface<Integer>> floorsOut = new ArrayList<>();
             for(int i = 0; i < FloorStart.NUM_FLOORS; i++){
-                MessageBuffer<Integer> floorOut = new MessageBuffer<>();
-                Naming.rebind(String.format("rmi://localhost/Floor%dFromScheduler", i + 1), floorOut);
+                // arrival notices are only printed, so a slow floor loses the oldest rather than stalling the scheduler
+                MessageBuffer<Integer> floorOut = new MessageBuffer<>(64, MessageBuffer.OverflowPolicy.DROP_OLDEST);
+                Transport.bind(String.format("rmi://localhost/Floor%dFromScheduler", i + 1), floorOut, WireCodec.INTEGER);
+                int floorNumber = i + 1;
+                floorOut.setPutListener(() -> putNotice(floorNotices, floorNumber));
                 floorsOut.add(floorOut);
             }
 
             ArrayList<SharedDataInterface<Command>> elevatorsOut = new ArrayList<>();
             for(int i = 0; i < ElevatorStart.NUM_ELEVATORS; i++){
                 MessageBuffer<Command> elevatorOut = new MessageBuffer<>();
-                Naming.rebind(String.format("rmi://localhost/Elevator%dFromScheduler", i + 1), elevatorOut);
+                Transport.bind(String.format("rmi://localhost/Elevator%dFromScheduler", i + 1), elevatorOut, WireCodec.COMMAND);
+                int elevatorNumber = i + 1;
+                elevatorOut.setPutListener(() -> putNotice(elevatorNotices, elevatorNumber));
                 elevatorsOut.add(elevatorOut);
             }
 
             Scheduler s = new Scheduler(floorsIn, floorsOut, elevatorsIn, elevatorsOut);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(s.getMonitor(), new ObjectName("elevator:type=Scheduler"));
+            Integer metricsPort = Integer.getInteger(MetricsServer.PORT_PROPERTY);
+            if (metricsPort != null) {
+                new MetricsServer(metricsPort, s.getMonitor()).start();
+                System.out.println("Serving metrics at http://localhost:" + metricsPort + "/metrics");
+            }
+            floorsIn.setPutListener(s::onRequestArrived);
+            elevatorsIn.setPutListener(s::onStatusChanged);
             Thread schedulerThread = new Thread(s, "Scheduler");
             schedulerThread.start();
-        } catch (RemoteException | MalformedURLException e) {
+        } catch (IOException | JMException e) {
+            Error.handleError(e);
+        }
+    }
+
+    // run by the scheduler thread as it sends a floor or elevator something, the notices never block
+    private static void putNotice(MessageBuffer<Integer> notices, int number) {
+        try {
+            notices.put(number);
+        } catch (RemoteException e) {
             Error.handleError(e);
         }
     }
+
+    public boolean isDone() {
+        return doneRequests;
+    }
+
+    public int getNumMovements() {
+        return numMovements;
+    }
+
+    public CostTable getCostTable() {
+        return costs;
+    }
+
+    /**
+     * @return The passenger latency histograms so far, which can be read while the scheduler runs.
+     */
+    public PassengerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The scheduler's counters and gauges, which can be read while the scheduler runs.
+     */
+    public SchedulerMonitor getMonitor() {
+        return monitor;
+    }
+
     public List<Request> getActiveRequests() {
-        return Collections.unmodifiableList(activeRequests);
+        return Collections.unmodifiableList(activeRequests.toList());
     }
 
     public List<ArrayList<RequestPickedUpPair>> getElevatorRequests() {
         return Collections.unmodifiableList(elevatorRequests);
     }
     public void runOnce() throws RemoteException, InterruptedException {
-        getRequest();
+        getRequests();
         selectElevator();
         commandElevators();
 
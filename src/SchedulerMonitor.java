@@ -0,0 +1,243 @@
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counters and gauges for watching the scheduler under load without parsing its output. The scheduler reports
+ * cycles, assignments, faults and statuses as they happen, queue depths are read from the buffers when asked.
+ * Exported through JMX as a SchedulerMonitorMBean and over HTTP by MetricsServer. Safe to read from any thread.
+ */
+public class SchedulerMonitor implements SchedulerMonitorMBean {
+    private static final int RATE_WINDOW = 60; // seconds of assignments averaged by getAssignmentsPerSecond()
+    private static final long NO_STATUS = Long.MIN_VALUE;
+
+    private final SharedDataInterface<Request> fromFloors;
+    private final ArrayList<SharedDataInterface<Integer>> toFloors;
+    private final ArrayList<SharedDataInterface<Command>> toElevators;
+    private final PassengerMetrics passengers;
+    private final Clock clock;
+
+    private final LatencyHistogram cycleTimes = new LatencyHistogram();
+    private volatile int activeRequests = 0;
+    private volatile int movements = 0;
+    private long assignments = 0;
+    private final long[] assignmentSeconds = new long[RATE_WINDOW]; // ring by clock second, which second each slot counts
+    private final long[] assignmentCounts = new long[RATE_WINDOW];
+    private long reassignments = 0;
+    private long transientFaults = 0;
+    private long hardFaults = 0;
+
+    // index is for elevator number - 1
+    private final long[] firstStatusTimes; // NO_STATUS until the car reports
+    private final long[] lastStatusTimes;
+    private final long[] busyNanos;
+    private final boolean[] busy;
+
+    public SchedulerMonitor(SharedDataInterface<Request> fromFloors, ArrayList<SharedDataInterface<Integer>> toFloors,
+                            ArrayList<SharedDataInterface<Command>> toElevators, PassengerMetrics passengers, Clock clock) {
+        this.fromFloors = fromFloors;
+        this.toFloors = toFloors;
+        this.toElevators = toElevators;
+        this.passengers = passengers;
+        this.clock = clock;
+        int cars = toElevators.size();
+        firstStatusTimes = new long[cars];
+        lastStatusTimes = new long[cars];
+        busyNanos = new long[cars];
+        busy = new boolean[cars];
+        Arrays.fill(firstStatusTimes, NO_STATUS);
+        Arrays.fill(assignmentSeconds, Long.MIN_VALUE);
+    }
+
+    /**
+     * @param nanos Real time the cycle took.
+     */
+    public void cycleCompleted(long nanos, int activeRequests, int movements) {
+        cycleTimes.record(nanos);
+        this.activeRequests = activeRequests;
+        this.movements = movements;
+    }
+
+    public synchronized void assigned() {
+        assignments++;
+        long second = TimeUnit.NANOSECONDS.toSeconds(clock.nanoTime());
+        int slot = (int) Math.floorMod(second, (long) RATE_WINDOW);
+        if (assignmentSeconds[slot] != second) {
+            assignmentSeconds[slot] = second;
+            assignmentCounts[slot] = 0;
+        }
+        assignmentCounts[slot]++;
+    }
+
+    public synchronized void reassigned() {
+        reassignments++;
+    }
+
+    public synchronized void transientFault() {
+        transientFaults++;
+    }
+
+    public synchronized void hardFault() {
+        hardFaults++;
+    }
+
+    /**
+     * Counts the time since the car's last status as busy if it was moving or had its doors open.
+     */
+    public synchronized void statusReceived(ElevatorStatus status) {
+        int i = status.getNumber() - 1;
+        if (i < 0 || i >= busy.length) {
+            return;
+        }
+        long now = clock.nanoTime();
+        if (firstStatusTimes[i] == NO_STATUS) {
+            firstStatusTimes[i] = now;
+        } else if (busy[i]) {
+            busyNanos[i] += now - lastStatusTimes[i];
+        }
+        lastStatusTimes[i] = now;
+        Elevator.ElevatorState state = status.getCurrentState();
+        busy[i] = state == Elevator.ElevatorState.MOVING || state == Elevator.ElevatorState.DOORS_OPEN;
+    }
+
+    @Override
+    public int getRequestQueueDepth() {
+        return size(fromFloors);
+    }
+
+    @Override
+    public int getArrivalQueueDepth() {
+        int depth = 0;
+        for (SharedDataInterface<Integer> floor : toFloors) {
+            depth += size(floor);
+        }
+        return depth;
+    }
+
+    @Override
+    public int[] getCommandQueueDepths() {
+        int[] depths = new int[toElevators.size()];
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = size(toElevators.get(i));
+        }
+        return depths;
+    }
+
+    private static int size(SharedDataInterface<?> buffer) {
+        try {
+            return buffer == null ? 0 : buffer.size();
+        } catch (RemoteException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public int getActiveRequests() {
+        return activeRequests;
+    }
+
+    @Override
+    public int getMovements() {
+        return movements;
+    }
+
+    @Override
+    public long getSchedulerCycles() {
+        return cycleTimes.getCount();
+    }
+
+    @Override
+    public double getMeanCycleMicros() {
+        return cycleTimes.getMean() / 1000;
+    }
+
+    @Override
+    public double getP99CycleMicros() {
+        return cycleTimes.getValueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public synchronized long getAssignments() {
+        return assignments;
+    }
+
+    @Override
+    public synchronized double getAssignmentsPerSecond() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(clock.nanoTime());
+        long recent = 0;
+        for (int i = 0; i < RATE_WINDOW; i++) {
+            if (assignmentSeconds[i] != Long.MIN_VALUE && second - assignmentSeconds[i] < RATE_WINDOW) {
+                recent += assignmentCounts[i];
+            }
+        }
+        return (double) recent / RATE_WINDOW;
+    }
+
+    @Override
+    public synchronized long getReassignments() {
+        return reassignments;
+    }
+
+    @Override
+    public synchronized long getTransientFaults() {
+        return transientFaults;
+    }
+
+    @Override
+    public synchronized long getHardFaults() {
+        return hardFaults;
+    }
+
+    /**
+     * @return For each car, the share of the time since its first status that it has been moving or had its doors open.
+     */
+    @Override
+    public synchronized double[] getCarUtilizations() {
+        long now = clock.nanoTime();
+        double[] utilizations = new double[busy.length];
+        for (int i = 0; i < busy.length; i++) {
+            long total = now - firstStatusTimes[i];
+            if (firstStatusTimes[i] == NO_STATUS || total <= 0) {
+                continue;
+            }
+            long busyTime = busyNanos[i] + (busy[i] ? now - lastStatusTimes[i] : 0);
+            utilizations[i] = (double) busyTime / total;
+        }
+        return utilizations;
+    }
+
+    @Override
+    public double getP50WaitSeconds() {
+        return seconds(passengers.getWaitTimes().getValueAtPercentile(50));
+    }
+
+    @Override
+    public double getP95WaitSeconds() {
+        return seconds(passengers.getWaitTimes().getValueAtPercentile(95));
+    }
+
+    @Override
+    public double getP99WaitSeconds() {
+        return seconds(passengers.getWaitTimes().getValueAtPercentile(99));
+    }
+
+    @Override
+    public long getWaitCount() {
+        return passengers.getWaitTimes().getCount();
+    }
+
+    @Override
+    public double getWaitSumSeconds() {
+        return seconds(passengers.getWaitTimes().getSum());
+    }
+
+    @Override
+    public double getP95RideSeconds() {
+        return seconds(passengers.getRideTimes().getValueAtPercentile(95));
+    }
+
+    private static double seconds(long nanos) {
+        return (double) nanos / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * The scheduler's counters and gauges as seen through JMX, registered by Scheduler.main() as elevator:type=Scheduler.
+ * Durations are in seconds except where the name says otherwise.
+ */
+public interface SchedulerMonitorMBean {
+    int getRequestQueueDepth();
+    int getArrivalQueueDepth();
+    int[] getCommandQueueDepths();
+    int getActiveRequests();
+    int getMovements();
+    long getSchedulerCycles();
+    double getMeanCycleMicros();
+    double getP99CycleMicros();
+    long getAssignments();
+    double getAssignmentsPerSecond();
+    long getReassignments();
+    long getTransientFaults();
+    long getHardFaults();
+    double[] getCarUtilizations();
+    double getP50WaitSeconds();
+    double getP95WaitSeconds();
+    double getP99WaitSeconds();
+    long getWaitCount();
+    double getWaitSumSeconds();
+    double getP95RideSeconds();
+}
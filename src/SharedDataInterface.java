@@ -1,9 +1,13 @@
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.ArrayList;
 public interface SharedDataInterface<T> extends Remote{
     T remove() throws RemoteException;
     void put(T message) throws RemoteException;
+    void putAll(ArrayList<T> messages) throws RemoteException;
     T get(int index) throws RemoteException;
     void remove(T message) throws RemoteException;
     int size() throws RemoteException;
-}
\ No newline at end of file
+    T take(long timeoutMillis) throws RemoteException;
+    ArrayList<T> drainTo(int maxMessages) throws RemoteException;
+}
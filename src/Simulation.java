@@ -0,0 +1,341 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the scheduler, elevators and floors in one thread on a virtual clock. Instead of sleeping, it jumps
+ * straight to the next event, so a request file is replayed in a fraction of its real time.
+ * The components are the same classes the distributed system runs, connected by local buffers instead of RMI.
+ * Usage: Simulation [request file] [-v], -v prints the components' own output.
+ * Choose the dispatch strategy with -Delevator.dispatch as for the scheduler.
+ */
+public class Simulation implements Clock {
+    // a simulation that hasn't finished after this much virtual time is assumed to be stuck
+    public static final long MAX_VIRTUAL_TIME = TimeUnit.DAYS.toMillis(7);
+
+    // the floors start once every elevator has reported, as FloorStart is run after ElevatorStart
+    private static final long FLOOR_START_TIME = 2 * Elevator.ElevatorState.IDLE.getSleepTime();
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long now = 0; // virtual milliseconds since the elevators started
+    private long sequence = 0; // keeps events due at the same time in the order they were scheduled
+
+    private final Scheduler scheduler;
+    private final ArrayList<Elevator> elevators = new ArrayList<>();
+    private final ArrayList<MessageBuffer<Command>> elevatorCommands = new ArrayList<>();
+    private final boolean[] elevatorWaiting; // index is for elevator number, finished its last command and waiting for the next
+    private final int[] elevatorWaits; // index is for elevator number, counts waits so a wait's timeout can tell if it is stale
+    private final ArrayList<Floor> floors = new ArrayList<>();
+    private final ArrayList<UnicastRemoteObject> buffers = new ArrayList<>(); // unexported when the simulation ends
+    private long schedulerWakeTime = Long.MAX_VALUE; // when the scheduler's next cycle is due
+    private boolean requestsArrived = false;
+    private long schedulerCycles = 0;
+    private long schedulerNanos = 0; // real time spent in scheduler cycles
+    private final Iterator<Request> requests; // read one at a time, so a trace never has to fit in memory
+    private LocalTime firstRequestTime;
+    private long requestsReplayed = 0;
+
+    private enum EventType {
+        FLOOR_REQUEST,    // a floor sends one of its requests
+        FLOOR_ARRIVAL,    // a floor is told an elevator arrived
+        ELEVATOR_READY,   // an elevator is ready for its next command
+        ELEVATOR_TIMEOUT, // an elevator gave up waiting for a command
+        SCHEDULER_WAKE    // the scheduler runs a cycle
+    }
+
+    private static class Event implements Comparable<Event> {
+        final long time;
+        final long sequence;
+        final EventType type;
+        final int number; // floor or elevator number
+        final int wait; // for a timeout, which of the elevator's waits it ends
+        final Request request; // for a floor request
+
+        Event(long time, long sequence, EventType type, int number, int wait, Request request) {
+            this.time = time;
+            this.sequence = sequence;
+            this.type = type;
+            this.number = number;
+            this.wait = wait;
+            this.request = request;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            if (time != other.time) {
+                return Long.compare(time, other.time);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Builds the system and schedules every request at its time relative to the first one, once the floors start.
+     * @param requests The requests to replay, sorted by time.
+     * @param dispatch How the scheduler assigns requests to elevators.
+     */
+    public Simulation(ArrayList<Request> requests, DispatchStrategy dispatch) throws RemoteException {
+        this(requests.iterator(), dispatch);
+    }
+
+    /**
+     * Builds the system and schedules the requests one at a time, each when the one before it is sent.
+     * @param requests The requests to replay in time order, e.g. a RequestStream.
+     * @param dispatch How the scheduler assigns requests to elevators.
+     */
+    public Simulation(Iterator<Request> requests, DispatchStrategy dispatch) throws RemoteException {
+        this.requests = requests;
+        MessageBuffer<Request> floorsIn = new MessageBuffer<>();
+        StatusBoard elevatorsIn = new StatusBoard(ElevatorStart.NUM_ELEVATORS);
+        buffers.add(floorsIn);
+        buffers.add(elevatorsIn);
+
+        ArrayList<SharedDataInterface<Integer>> floorsOut = new ArrayList<>();
+        for (int i = 0; i < FloorStart.NUM_FLOORS; i++) {
+            MessageBuffer<Integer> floorOut = new MessageBuffer<>(64, MessageBuffer.OverflowPolicy.DROP_OLDEST);
+            int floorNumber = i + 1;
+            floorOut.setPutListener(() -> schedule(now, EventType.FLOOR_ARRIVAL, floorNumber, null));
+            floorsOut.add(floorOut);
+            buffers.add(floorOut);
+            floors.add(new Floor(floorNumber, floorsIn, floorOut));
+        }
+
+        ArrayList<SharedDataInterface<Command>> elevatorsOut = new ArrayList<>();
+        elevatorWaiting = new boolean[ElevatorStart.NUM_ELEVATORS + 1];
+        elevatorWaits = new int[ElevatorStart.NUM_ELEVATORS + 1];
+        for (int i = 0; i < ElevatorStart.NUM_ELEVATORS; i++) {
+            MessageBuffer<Command> elevatorOut = new MessageBuffer<>();
+            int elevatorNumber = i + 1;
+            elevatorOut.setPutListener(() -> onCommand(elevatorNumber));
+            elevatorsOut.add(elevatorOut);
+            elevatorCommands.add(elevatorOut);
+            buffers.add(elevatorOut);
+            elevators.add(new Elevator(elevatorNumber, elevatorsIn, elevatorOut));
+            schedule(0, EventType.ELEVATOR_READY, elevatorNumber, null);
+        }
+
+        scheduler = new Scheduler(floorsIn, floorsOut, elevatorsIn, elevatorsOut, dispatch, this, null);
+        floorsIn.setPutListener(() -> {
+            requestsArrived = true;
+            wakeScheduler(now);
+        });
+        elevatorsIn.setPutListener(() -> wakeScheduler(now));
+
+        scheduleNextRequest();
+    }
+
+    @Override
+    public long nanoTime() {
+        return TimeUnit.MILLISECONDS.toNanos(now);
+    }
+
+    /**
+     * Sleeps in virtual time: the other components keep running while the caller sleeps, so every event due before
+     * the sleep ends is handled first, then the clock moves on to the end of the sleep.
+     */
+    @Override
+    public void sleep(long millis) {
+        long wakeTime = now + Math.max(millis, 0);
+        try {
+            while (!events.isEmpty() && events.peek().time <= wakeTime) {
+                Event event = events.poll();
+                now = event.time;
+                handle(event);
+            }
+        } catch (RemoteException e) {
+            Error.handleError(e);
+        }
+        now = wakeTime;
+    }
+
+    // nothing in a simulation waits in real time
+    @Override
+    public long toRealMillis(long millis) {
+        return 0;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public long getRequestsReplayed() {
+        return requestsReplayed;
+    }
+
+    public long getSchedulerCycles() {
+        return schedulerCycles;
+    }
+
+    /**
+     * @return The mean real time of one scheduler cycle in nanoseconds.
+     */
+    public long getMeanSchedulerCycleNanos() {
+        return schedulerCycles == 0 ? 0 : schedulerNanos / schedulerCycles;
+    }
+
+    /**
+     * Processes events in time order until the scheduler has finished every request.
+     * @param maxVirtualTime The longest to run in virtual milliseconds.
+     * @return The virtual time from the first request to the last one finishing in milliseconds, or -1 if the time ran out.
+     */
+    public long run(long maxVirtualTime) throws RemoteException {
+        try {
+            while (!scheduler.isDone() && !events.isEmpty()) {
+                Event event = events.poll();
+                if (event.time > maxVirtualTime) {
+                    return -1;
+                }
+                now = event.time;
+                handle(event);
+            }
+            return scheduler.isDone() ? now - FLOOR_START_TIME : -1;
+        } finally {
+            for (UnicastRemoteObject buffer : buffers) {
+                try {
+                    UnicastRemoteObject.unexportObject(buffer, true);
+                } catch (NoSuchObjectException e) {
+                    // already unexported
+                }
+            }
+        }
+    }
+
+    private void handle(Event event) throws RemoteException {
+        switch (event.type) {
+            case FLOOR_REQUEST:
+                floors.get(event.number - 1).putInToScheduler(event.request);
+                requestsReplayed++;
+                scheduleNextRequest();
+                break;
+            case FLOOR_ARRIVAL:
+                floors.get(event.number - 1).receiveArrival(0);
+                break;
+            case ELEVATOR_READY:
+                runElevator(event.number, elevatorCommands.get(event.number - 1).remove(), false);
+                break;
+            case ELEVATOR_TIMEOUT:
+                if (elevatorWaiting[event.number] && elevatorWaits[event.number] == event.wait) {
+                    runElevator(event.number, null, true);
+                }
+                break;
+            case SCHEDULER_WAKE:
+                if (event.time != schedulerWakeTime) {
+                    return; // replaced by an earlier wake
+                }
+                schedulerWakeTime = Long.MAX_VALUE;
+                boolean arrived = requestsArrived;
+                requestsArrived = false;
+                long cycleStart = System.nanoTime();
+                scheduler.step(arrived);
+                schedulerNanos += System.nanoTime() - cycleStart;
+                schedulerCycles++;
+                wakeScheduler(now + scheduler.timeUntilNextTimer());
+                break;
+        }
+    }
+
+    // one pass of Elevator.run(), with the sleep turned into the time of its next event
+    private void runElevator(int elevatorNumber, Command command, boolean timedOut) {
+        Elevator elevator = elevators.get(elevatorNumber - 1);
+        if (command == null && !timedOut && !elevator.isTravelling()) {
+            waitForCommand(elevatorNumber);
+            return;
+        }
+        elevatorWaiting[elevatorNumber] = false;
+        elevator.respondToCommand(command);
+        long delay = elevator.handleState();
+        if (!elevator.isShutdown()) {
+            schedule(now + delay, EventType.ELEVATOR_READY, elevatorNumber, null);
+        }
+    }
+
+    // an elevator with no command waits as long as Elevator.getCommand() does, or until a command is put
+    private void waitForCommand(int elevatorNumber) {
+        elevatorWaiting[elevatorNumber] = true;
+        elevatorWaits[elevatorNumber]++;
+        schedule(now + Elevator.ElevatorState.IDLE.getSleepTime(), EventType.ELEVATOR_TIMEOUT, elevatorNumber, elevatorWaits[elevatorNumber], null);
+    }
+
+    private void onCommand(int elevatorNumber) {
+        if (elevatorWaiting[elevatorNumber]) {
+            elevatorWaiting[elevatorNumber] = false;
+            schedule(now, EventType.ELEVATOR_READY, elevatorNumber, null);
+        }
+    }
+
+    private void scheduleNextRequest() {
+        if (!requests.hasNext()) {
+            return;
+        }
+        Request request = requests.next();
+        if (firstRequestTime == null) {
+            firstRequestTime = request.getTime();
+        }
+        long time = FLOOR_START_TIME + Duration.between(firstRequestTime, request.getTime()).toMillis();
+        schedule(Math.max(time, now), EventType.FLOOR_REQUEST, request.getSourceFloor(), request);
+    }
+
+    private void wakeScheduler(long time) {
+        if (time < schedulerWakeTime) {
+            schedulerWakeTime = time;
+            schedule(time, EventType.SCHEDULER_WAKE, 0, null);
+        }
+    }
+
+    private void schedule(long time, EventType type, int number, Request request) {
+        schedule(time, type, number, 0, request);
+    }
+
+    private void schedule(long time, EventType type, int number, int wait, Request request) {
+        events.add(new Event(time, sequence++, type, number, wait, request));
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = "src/InputFile.txt";
+        boolean verbose = false;
+        for (String arg : args) {
+            if (arg.equals("-v")) {
+                verbose = true;
+            } else {
+                file = arg;
+            }
+        }
+        PrintStream out = System.out;
+        if (!verbose) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        long start = System.nanoTime();
+        Simulation simulation;
+        long finishTime;
+        try (RequestStream requests = new RequestStream(new File(file))) {
+            simulation = new Simulation(requests, DispatchStrategy.fromProperty());
+            finishTime = simulation.run(MAX_VIRTUAL_TIME);
+        }
+        long wallTime = System.nanoTime() - start;
+        System.setOut(out);
+
+        System.out.println("Requests: " + simulation.getRequestsReplayed());
+        if (finishTime < 0) {
+            System.out.println("Did not finish within " + Duration.ofMillis(MAX_VIRTUAL_TIME).toDays() + " days of simulated time");
+        } else {
+            System.out.println("Simulated duration: " + Duration.ofMillis(finishTime).toSeconds() + " seconds");
+        }
+        System.out.println("Total Number of Elevator Movements: " + simulation.getScheduler().getNumMovements());
+        System.out.println(simulation.getScheduler().getMetrics().summary());
+        CostTable costs = simulation.getScheduler().getCostTable();
+        System.out.println("Requests moved to a better car: " + simulation.getScheduler().getMonitor().getReassignments());
+        System.out.println("Scores reused: " + costs.getHits() + ", worked out: " + costs.getMisses());
+        System.out.println("Scheduler cycles: " + simulation.getSchedulerCycles() + ", mean " + TimeUnit.NANOSECONDS.toMicros(simulation.getMeanSchedulerCycleNanos()) + " us");
+        System.out.println("Real time: " + TimeUnit.NANOSECONDS.toMillis(wallTime) + " ms");
+    }
+}
@@ -0,0 +1,46 @@
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+
+/**
+ * A local status board that forwards changed elevator statuses to the scheduler's board in batches.
+ * Several updates from the same elevator between sends collapse into its latest status.
+ */
+public class StatusBatchSender extends StatusBoard implements Runnable {
+    private static final long WAIT_TIME = 60000;
+    private final StatusBoardInterface destination;
+    private final long[] sentVersions; // index is for elevator number, last status version forwarded
+
+    public StatusBatchSender(int numElevators, StatusBoardInterface destination) throws RemoteException {
+        super(numElevators);
+        this.destination = destination;
+        sentVersions = new long[numElevators];
+        // only used within this process, so it doesn't need to accept remote calls
+        UnicastRemoteObject.unexportObject(this, true);
+    }
+
+    @Override
+    public void run() {
+        long sentVersion = 0;
+        while (true) {
+            try {
+                long currentVersion = awaitVersion(sentVersion, WAIT_TIME);
+                if (currentVersion == sentVersion) {
+                    continue;
+                }
+                ArrayList<ElevatorStatus> batch = new ArrayList<>();
+                for (int i = 0; i < sentVersions.length; i++) {
+                    long slotVersion = getVersion(i + 1);
+                    if (slotVersion != sentVersions[i]) {
+                        sentVersions[i] = slotVersion;
+                        batch.add(get(i + 1));
+                    }
+                }
+                destination.putAll(batch);
+                sentVersion = currentVersion;
+            } catch (RemoteException e) {
+                Error.handleError(e);
+            }
+        }
+    }
+}
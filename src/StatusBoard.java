@@ -0,0 +1,148 @@
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Holds the latest status of each elevator, keyed by elevator number.
+ * Every put bumps a board-wide version and stamps the elevator's slot with it,
+ * so readers can tell which elevators changed since they last looked.
+ * The slot is stamped before the board version is published, so a reader that sees a new board version
+ * always finds the slots that changed.
+ */
+public class StatusBoard extends UnicastRemoteObject implements StatusBoardInterface {
+    private final AtomicReferenceArray<ElevatorStatus> statuses;
+    private final AtomicLongArray versions;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Runnable putListener; // optional, run after every put in this process
+
+    /**
+     * Constructor initializes an empty slot for every elevator.
+     * @param numElevators The number of elevators, numbered from 1.
+     */
+    public StatusBoard(int numElevators) throws RemoteException {
+        statuses = new AtomicReferenceArray<>(numElevators);
+        versions = new AtomicLongArray(numElevators);
+    }
+
+    /**
+     * Replaces the elevator's previous status.
+     * @param status The newest status, stored in the slot for its elevator number.
+     */
+    @Override
+    public void put(ElevatorStatus status) throws RemoteException {
+        synchronized (this) {
+            long next = version.get() + 1;
+            int index = status.getNumber() - 1;
+            statuses.set(index, status);
+            versions.set(index, next);
+            beforePublish();
+            version.set(next);
+            notifyAll();
+        }
+        notifyPutListener();
+    }
+
+    /**
+     * Replaces the previous status of every elevator in the batch, in order.
+     * @param batch The newest statuses, a later status for the same elevator wins.
+     */
+    @Override
+    public void putAll(ArrayList<ElevatorStatus> batch) throws RemoteException {
+        synchronized (this) {
+            long next = version.get();
+            for (ElevatorStatus status : batch) {
+                int index = status.getNumber() - 1;
+                statuses.set(index, status);
+                versions.set(index, ++next);
+            }
+            beforePublish();
+            version.set(next);
+            notifyAll();
+        }
+        notifyPutListener();
+    }
+
+    /**
+     * Run by put and putAll once the slots are stamped and before the new board version is published.
+     * Does nothing here, a test can override it to read the board in between.
+     */
+    protected void beforePublish() {
+    }
+
+    /**
+     * Waits until any elevator's status is put after the given version, or the timeout expires.
+     * @param sinceVersion The board version the caller has already seen.
+     * @param timeoutMillis The longest time to wait in milliseconds.
+     * @return The current board version, equal to sinceVersion if nothing changed in time.
+     */
+    public synchronized long awaitVersion(long sinceVersion, long timeoutMillis) {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000;
+        try {
+            while (version.get() == sinceVersion) {
+                long remaining = (deadline - System.nanoTime()) / 1_000_000;
+                if (remaining <= 0) {
+                    break;
+                }
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return version.get();
+    }
+
+    /**
+     * @param elevatorNumber The elevator number, starting at 1.
+     * @return The latest status of the elevator, or null if it never reported or doesn't exist.
+     */
+    @Override
+    public ElevatorStatus get(int elevatorNumber) throws RemoteException {
+        if (elevatorNumber < 1 || elevatorNumber > statuses.length()) {
+            return null;
+        }
+        return statuses.get(elevatorNumber - 1);
+    }
+
+    /**
+     * @return The board-wide version, which changes whenever any elevator's status is put.
+     */
+    @Override
+    public long getVersion() throws RemoteException {
+        return version.get();
+    }
+
+    /**
+     * @param elevatorNumber The elevator number, starting at 1.
+     * @return The board-wide version at the elevator's last put, 0 if it never reported.
+     */
+    @Override
+    public long getVersion(int elevatorNumber) throws RemoteException {
+        if (elevatorNumber < 1 || elevatorNumber > versions.length()) {
+            return 0;
+        }
+        return versions.get(elevatorNumber - 1);
+    }
+
+    /**
+     * Registers code to run after every put or putAll, e.g. to wake a consumer that waits on several sources.
+     * @param listener Run by the putting thread, so it must not block.
+     */
+    public void setPutListener(Runnable listener) {
+        putListener = listener;
+    }
+
+    private void notifyPutListener() {
+        Runnable listener = putListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    @Override
+    public int size() {
+        return statuses.length();
+    }
+}
@@ -0,0 +1,11 @@
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+public interface StatusBoardInterface extends Remote{
+    void put(ElevatorStatus status) throws RemoteException;
+    void putAll(ArrayList<ElevatorStatus> statuses) throws RemoteException;
+    ElevatorStatus get(int elevatorNumber) throws RemoteException;
+    long getVersion() throws RemoteException;
+    long getVersion(int elevatorNumber) throws RemoteException;
+    int size() throws RemoteException;
+}
@@ -0,0 +1,156 @@
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The floors one elevator has to stop at, kept as two bitmaps over the floors: stops made while going up and
+ * stops made while going down. Stops are served in LOOK order, every stop in the direction of travel is served
+ * before the elevator turns around. A passenger is only picked up by an elevator going their way, unless the
+ * elevator is turning around at their floor.
+ */
+public class SweepStops {
+    private final BitSet upStops = new BitSet();
+    private final BitSet downStops = new BitSet();
+    private Elevator.ElevatorMovement direction = Elevator.ElevatorMovement.STOP;
+
+    /**
+     * Replaces the stops with those needed by a queue of requests.
+     * @param queue Every request assigned to the elevator.
+     */
+    public void rebuild(List<RequestPickedUpPair> queue) {
+        upStops.clear();
+        downStops.clear();
+        for (RequestPickedUpPair pair : queue) {
+            add(pair);
+        }
+    }
+
+    public void add(RequestPickedUpPair pair) {
+        stopsFor(pair).set(stopFloor(pair));
+    }
+
+    public void clear() {
+        upStops.clear();
+        downStops.clear();
+        direction = Elevator.ElevatorMovement.STOP;
+    }
+
+    public boolean isEmpty() {
+        return upStops.isEmpty() && downStops.isEmpty();
+    }
+
+    public Elevator.ElevatorMovement getDirection() {
+        return direction;
+    }
+
+    public void setDirection(Elevator.ElevatorMovement direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Finds the next floor to stop at, turning the elevator around if nothing is left ahead of it.
+     * @param floor The elevator's current floor.
+     * @return The next stop, which may be the current floor, or -1 if there are no stops.
+     */
+    public int nextStop(int floor) {
+        if (isEmpty()) {
+            direction = Elevator.ElevatorMovement.STOP;
+            return -1;
+        }
+        if (direction == Elevator.ElevatorMovement.STOP) {
+            direction = nearestDirection(floor);
+        }
+        for (int turn = 0; turn < 2; turn++) {
+            if (direction == Elevator.ElevatorMovement.UP) {
+                int stop = upStops.nextSetBit(floor);
+                if (stop >= 0) {
+                    return stop;
+                }
+                stop = downStops.length() - 1; // go up to where the down sweep starts
+                if (stop > floor) {
+                    return stop;
+                }
+                direction = Elevator.ElevatorMovement.DOWN;
+            } else {
+                int stop = downStops.previousSetBit(floor);
+                if (stop >= 0) {
+                    return stop;
+                }
+                stop = upStops.nextSetBit(0); // go down to where the up sweep starts
+                if (stop >= 0 && stop < floor) {
+                    return stop;
+                }
+                direction = Elevator.ElevatorMovement.UP;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Opens the doors at a floor: drops off every passenger going there and picks up every passenger
+     * waiting there to go the elevator's way. Call nextStop first so the direction is up to date.
+     * @param floor The floor the elevator is stopped at.
+     * @param queue Every request assigned to the elevator, dropped off requests are removed from it.
+     * @param pickedUp Filled with the requests picked up.
+     * @param droppedOff Filled with the requests dropped off.
+     */
+    public void serve(int floor, List<RequestPickedUpPair> queue, List<RequestPickedUpPair> pickedUp, List<RequestPickedUpPair> droppedOff) {
+        for (int i = 0; i < queue.size(); i++) {
+            RequestPickedUpPair pair = queue.get(i);
+            Request request = pair.getRequest();
+            if (pair.isPickedUp()) {
+                if (request.getDestinationFloor() == floor) {
+                    droppedOff.add(pair);
+                    queue.remove(i--);
+                }
+            } else if (request.getSourceFloor() == floor && isGoingUp(request) == (direction != Elevator.ElevatorMovement.DOWN)) {
+                pair.setPickedUp(true);
+                pickedUp.add(pair);
+                add(pair);
+            }
+        }
+
+        // anyone still waiting here is going the other way
+        upStops.clear(floor);
+        downStops.clear(floor);
+        for (RequestPickedUpPair pair : queue) {
+            if (stopFloor(pair) == floor) {
+                add(pair);
+            }
+        }
+    }
+
+    private Elevator.ElevatorMovement nearestDirection(int floor) {
+        int above = nextSetBit(floor);
+        int below = previousSetBit(floor);
+        if (above >= 0 && (below < 0 || above - floor <= floor - below)) {
+            return Elevator.ElevatorMovement.UP;
+        }
+        return Elevator.ElevatorMovement.DOWN;
+    }
+
+    private int nextSetBit(int floor) {
+        int up = upStops.nextSetBit(floor);
+        int down = downStops.nextSetBit(floor);
+        if (up < 0 || down < 0) {
+            return Math.max(up, down);
+        }
+        return Math.min(up, down);
+    }
+
+    private int previousSetBit(int floor) {
+        return Math.max(upStops.previousSetBit(floor), downStops.previousSetBit(floor));
+    }
+
+    private BitSet stopsFor(RequestPickedUpPair pair) {
+        return isGoingUp(pair.getRequest()) ? upStops : downStops;
+    }
+
+    // where the request needs the elevator next, its source floor until it is picked up
+    public static int stopFloor(RequestPickedUpPair pair) {
+        return pair.isPickedUp() ? pair.getRequest().getDestinationFloor() : pair.getRequest().getSourceFloor();
+    }
+
+    private static boolean isGoingUp(Request request) {
+        return request.getDestinationFloor() >= request.getSourceFloor();
+    }
+}
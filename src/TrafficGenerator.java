@@ -0,0 +1,165 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates random but reproducible traffic for one of the classic elevator traffic patterns. Requests arrive as a
+ * Poisson process, so the gaps between them are exponentially distributed around the chosen rate, and the same seed
+ * always gives the same requests. Floor 1 is the lobby.
+ * Usage: TrafficGenerator up-peak|lunch|down-peak|inter-floor [requests per minute] [minutes] [seed]
+ * [transient fault probability] [hard fault probability], writing a request file to standard output.
+ * The building size is -Delevator.floors, as for the other subsystems.
+ */
+public class TrafficGenerator implements Iterator<Request> {
+    public enum Pattern {
+        // shares of requests from the lobby, to the lobby and between other floors
+        UP_PEAK(0.85, 0.05, LocalTime.of(8, 0)),
+        LUNCH(0.45, 0.45, LocalTime.of(12, 0)),
+        DOWN_PEAK(0.05, 0.85, LocalTime.of(17, 0)),
+        INTER_FLOOR(0, 0, LocalTime.of(10, 0)); // every pair of floors is equally likely
+
+        private final double fromLobby;
+        private final double toLobby;
+        private final LocalTime startTime; // when the pattern typically happens
+
+        Pattern(double fromLobby, double toLobby, LocalTime startTime) {
+            this.fromLobby = fromLobby;
+            this.toLobby = toLobby;
+            this.startTime = startTime;
+        }
+
+        /**
+         * @param name e.g. "up-peak" or "UP_PEAK".
+         */
+        public static Pattern parse(String name) {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private static final int LOBBY = 1;
+    private static final long TIME_RESOLUTION = TimeUnit.MILLISECONDS.toNanos(10); // a request file holds hundredths
+
+    private final Pattern pattern;
+    private final int floors;
+    private final double meanGapNanos;
+    private final long endNanos; // nano of day when arrivals stop
+    private final double transientFaultProbability;
+    private final double hardFaultProbability;
+    private final Random random;
+    private double nextArrivalNanos; // nano of day of the next request
+
+    /**
+     * @param requestsPerMinute The mean arrival rate.
+     * @param minutes How long requests keep arriving, cut short at midnight.
+     * @param floors The number of floors, at least 2.
+     * @param transientFaultProbability The chance each request carries a transient fault.
+     * @param hardFaultProbability The chance each request carries a hard fault, which shuts its elevator down.
+     */
+    public TrafficGenerator(Pattern pattern, double requestsPerMinute, double minutes, int floors, long seed,
+                            double transientFaultProbability, double hardFaultProbability) {
+        if (requestsPerMinute <= 0 || minutes <= 0 || floors < 2) {
+            throw new IllegalArgumentException("Rate and duration must be positive and there must be at least 2 floors");
+        }
+        this.pattern = pattern;
+        this.floors = floors;
+        this.transientFaultProbability = transientFaultProbability;
+        this.hardFaultProbability = hardFaultProbability;
+        meanGapNanos = TimeUnit.MINUTES.toNanos(1) / requestsPerMinute;
+        long startNanos = pattern.startTime.toNanoOfDay();
+        endNanos = Math.min(startNanos + (long) (minutes * TimeUnit.MINUTES.toNanos(1)), LocalTime.MAX.toNanoOfDay());
+        random = new Random(seed);
+        nextArrivalNanos = startNanos + nextGap();
+    }
+
+    public TrafficGenerator(Pattern pattern, double requestsPerMinute, double minutes, long seed) {
+        this(pattern, requestsPerMinute, minutes, FloorStart.NUM_FLOORS, seed, 0, 0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextArrivalNanos < endNanos;
+    }
+
+    /**
+     * @return The next request, marked as the last one if no other arrives before the end.
+     */
+    @Override
+    public Request next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LocalTime time = LocalTime.ofNanoOfDay((long) nextArrivalNanos / TIME_RESOLUTION * TIME_RESOLUTION);
+        nextArrivalNanos += nextGap();
+
+        int source;
+        int destination;
+        double kind = random.nextDouble();
+        if (kind < pattern.fromLobby) {
+            source = LOBBY;
+            destination = otherFloor(LOBBY);
+        } else if (kind < pattern.fromLobby + pattern.toLobby) {
+            source = otherFloor(LOBBY);
+            destination = LOBBY;
+        } else {
+            source = 1 + random.nextInt(floors);
+            destination = otherFloor(source);
+        }
+        Request.Direction direction = destination > source ? Request.Direction.UP : Request.Direction.DOWN;
+
+        int fault = 0;
+        double faultChance = random.nextDouble();
+        if (faultChance < hardFaultProbability) {
+            fault = 2;
+        } else if (faultChance < hardFaultProbability + transientFaultProbability) {
+            fault = 1;
+        }
+        return new Request(time, source, direction, destination, fault, !hasNext());
+    }
+
+    // exponentially distributed, so arrivals form a Poisson process
+    private double nextGap() {
+        return -Math.log(1 - random.nextDouble()) * meanGapNanos;
+    }
+
+    // a random floor other than the given one
+    private int otherFloor(int floor) {
+        int other = 1 + random.nextInt(floors - 1);
+        return other >= floor ? other + 1 : other;
+    }
+
+    /**
+     * Writes a request as a line of a request file, in the format InputParser reads.
+     */
+    public static void write(Request request, Writer out) throws IOException {
+        LocalTime time = request.getTime();
+        out.write(String.format("%02d:%02d:%02d.%02d %d %s %d %d%n", time.getHour(), time.getMinute(), time.getSecond(),
+                time.getNano() / 10_000_000, request.getSourceFloor(), request.getDirection() == Request.Direction.UP ? "up" : "down",
+                request.getDestinationFloor(), request.getFault()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TrafficGenerator up-peak|lunch|down-peak|inter-floor [requests per minute] [minutes] [seed] [transient fault probability] [hard fault probability]");
+            System.exit(1);
+        }
+        Pattern pattern = Pattern.parse(args[0]);
+        double requestsPerMinute = args.length > 1 ? Double.parseDouble(args[1]) : 6;
+        double minutes = args.length > 2 ? Double.parseDouble(args[2]) : 30;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        double transientFaults = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+        double hardFaults = args.length > 5 ? Double.parseDouble(args[5]) : 0;
+
+        TrafficGenerator traffic = new TrafficGenerator(pattern, requestsPerMinute, minutes, FloorStart.NUM_FLOORS, seed, transientFaults, hardFaults);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+        while (traffic.hasNext()) {
+            write(traffic.next(), out);
+        }
+        out.flush();
+    }
+}
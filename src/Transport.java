@@ -0,0 +1,76 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.rmi.Naming;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+
+/**
+ * Chooses how the scheduler, elevators and floors talk to each other, set at startup with
+ * -Delevator.transport=rmi (the default) or -Delevator.transport=udp.
+ * With UDP the scheduler serves its buffers from a UdpServer on -Delevator.udpPort (default 1100)
+ * and the other subsystems reach it at -Delevator.host (default localhost).
+ * The RMI names double as endpoint names in both modes.
+ */
+public class Transport {
+    public static final String TRANSPORT_PROPERTY = "elevator.transport";
+    public static final String HOST_PROPERTY = "elevator.host";
+    public static final String PORT_PROPERTY = "elevator.udpPort";
+
+    private static UdpServer server;
+
+    public static boolean isUdp() {
+        return "udp".equalsIgnoreCase(System.getProperty(TRANSPORT_PROPERTY, "rmi"));
+    }
+
+    /**
+     * Starts the RMI registry, or the UDP server on its own thread. Called once by the scheduler before binding.
+     */
+    public static void startServer() throws IOException {
+        if (isUdp()) {
+            server = new UdpServer(Integer.getInteger(PORT_PROPERTY, UdpServer.DEFAULT_PORT));
+            Thread serverThread = new Thread(server, "UDP Server");
+            serverThread.setDaemon(true);
+            serverThread.start();
+            System.out.println("Using UDP transport");
+        } else {
+            LocateRegistry.createRegistry(1099);
+        }
+    }
+
+    public static <T> void bind(String name, MessageBuffer<T> buffer, WireCodec<T> codec) throws RemoteException, MalformedURLException {
+        if (isUdp()) {
+            server.bind(name, buffer, codec);
+        } else {
+            Naming.rebind(name, buffer);
+        }
+    }
+
+    public static void bind(String name, StatusBoard board) throws RemoteException, MalformedURLException {
+        if (isUdp()) {
+            server.bind(name, board);
+        } else {
+            Naming.rebind(name, board);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> SharedDataInterface<T> lookup(String name, WireCodec<T> codec) throws IOException, NotBoundException {
+        if (isUdp()) {
+            return new UdpSharedData<>(serverAddress(), name, codec);
+        }
+        return (SharedDataInterface<T>) Naming.lookup(name);
+    }
+
+    public static StatusBoardInterface lookupStatusBoard(String name) throws IOException, NotBoundException {
+        if (isUdp()) {
+            return new UdpStatusBoard(serverAddress(), name);
+        }
+        return (StatusBoardInterface) Naming.lookup(name);
+    }
+
+    private static InetSocketAddress serverAddress() {
+        return new InetSocketAddress(System.getProperty(HOST_PROPERTY, "localhost"), Integer.getInteger(PORT_PROPERTY, UdpServer.DEFAULT_PORT));
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.rmi.RemoteException;
+import java.security.SecureRandom;
+
+/**
+ * One endpoint's connection to a UdpServer. Each call sends a single datagram and waits for the reply
+ * with the same sequence number, so calls through one client are made one at a time. A call whose reply doesn't
+ * come within RETRY_INTERVAL is sent again with the same client id and sequence number; the server runs each call
+ * once and answers repeats with the reply it already sent, so a lost datagram in either direction loses nothing.
+ *
+ * Request: client id long, sequence int, operation byte, endpoint name, operation arguments.
+ * Reply: sequence int, status byte, result (or an error message when the status is ERROR).
+ */
+public class UdpClient {
+    public static final int MAX_DATAGRAM = 65507;
+    public static final int HEADER_SIZE = 256; // room for the client id, sequence, operation, status and endpoint name
+
+    // buffer operations
+    public static final byte PUT = 1;
+    public static final byte PUT_ALL = 2;
+    public static final byte REMOVE = 3;
+    public static final byte GET = 4;
+    public static final byte REMOVE_MESSAGE = 5;
+    public static final byte SIZE = 6;
+    public static final byte TAKE = 7;
+    public static final byte DRAIN_TO = 8;
+    // status board operations
+    public static final byte STATUS_PUT = 20;
+    public static final byte STATUS_PUT_ALL = 21;
+    public static final byte STATUS_GET = 22;
+    public static final byte STATUS_VERSION = 23;
+    public static final byte STATUS_SLOT_VERSION = 24;
+    public static final byte STATUS_SIZE = 25;
+
+    public static final byte OK = 0;
+    public static final byte ERROR = 1;
+
+    // how long to wait for a reply on top of any time the server was asked to wait
+    private static final long REPLY_TIMEOUT = 5000;
+    // how long to wait for a reply before sending the call again
+    private static final long RETRY_INTERVAL = 200;
+
+    private final String name;
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final ByteBuffer request = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+    private final ByteBuffer reply = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+    private final long clientId = new SecureRandom().nextLong(); // tells the server which calls are repeats of each other
+    private int sequence = 0;
+
+    public interface Writer {
+        void write(ByteBuffer buffer);
+    }
+
+    public interface Reader<R> {
+        R read(ByteBuffer buffer);
+    }
+
+    public UdpClient(InetSocketAddress server, String name) throws IOException {
+        this.name = name;
+        channel = DatagramChannel.open();
+        channel.connect(server);
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    /**
+     * Sends one operation to the server and decodes its reply.
+     * @param operation One of the operation constants.
+     * @param arguments Writes the operation's arguments after the header.
+     * @param waitMillis How long the server may wait before replying, e.g. the timeout of a take.
+     * @param result Decodes the result from the reply.
+     * @return The decoded result.
+     */
+    public synchronized <R> R call(byte operation, Writer arguments, long waitMillis, Reader<R> result) throws RemoteException {
+        try {
+            int callSequence = ++sequence;
+            request.clear();
+            request.putLong(clientId);
+            request.putInt(callSequence);
+            request.put(operation);
+            putString(request, name);
+            arguments.write(request);
+            request.flip();
+            channel.write(request);
+
+            long now = System.nanoTime();
+            long deadline = now + (Math.max(waitMillis, 0) + REPLY_TIMEOUT) * 1_000_000;
+            long resend = now + RETRY_INTERVAL * 1_000_000;
+            while (true) {
+                now = System.nanoTime();
+                if (now - deadline >= 0) {
+                    throw new RemoteException("No reply from " + channel.getRemoteAddress() + " for " + name);
+                }
+                if (now - resend >= 0) {
+                    request.rewind();
+                    channel.write(request);
+                    resend = now + RETRY_INTERVAL * 1_000_000;
+                }
+                selector.select(Math.max(1, (Math.min(deadline, resend) - now) / 1_000_000));
+                selector.selectedKeys().clear();
+                reply.clear();
+                if (channel.read(reply) <= 0) {
+                    continue;
+                }
+                reply.flip();
+                if (reply.getInt() != callSequence) {
+                    continue; // reply to an earlier call that already timed out, or a repeat of one already read
+                }
+                if (reply.get() != OK) {
+                    throw new RemoteException(getString(reply));
+                }
+                return result.read(reply);
+            }
+        } catch (RemoteException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new RemoteException("UDP call to " + name + " failed", e);
+        }
+    }
+
+    public static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    public static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
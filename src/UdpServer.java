@@ -0,0 +1,268 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the scheduler's buffers and status board over UDP, as an alternative to the RMI registry.
+ * A single selector thread receives every datagram and answers it directly. The exceptions are puts, which wait
+ * when a buffer is full, and a take on an empty buffer. These are handed to a waiter thread so the selector never
+ * blocks. Each client's last reply is kept, so a call the client sends again after losing a datagram is run once
+ * and answered again with the same reply.
+ */
+public class UdpServer implements Runnable {
+    public static final int DEFAULT_PORT = 1100;
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final ByteBuffer in = ByteBuffer.allocateDirect(UdpClient.MAX_DATAGRAM);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(UdpClient.MAX_DATAGRAM);
+    private final Map<String, Endpoint<?>> buffers = new ConcurrentHashMap<>();
+    private final Map<String, StatusBoardInterface> boards = new ConcurrentHashMap<>();
+    private final ExecutorService waiters = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "UDP Waiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // the last call from a client
+    private static class Call {
+        final int sequence;
+        volatile ByteBuffer reply; // null while the call is still running
+
+        Call(int sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    // an operation run on a waiter thread, which writes its result after the reply header
+    private interface Blocking {
+        void run(ByteBuffer reply) throws RemoteException;
+    }
+
+    private final Map<Long, Call> calls = new ConcurrentHashMap<>(); // index is for client id
+
+    private static class Endpoint<T> {
+        final SharedDataInterface<T> buffer;
+        final WireCodec<T> codec;
+
+        Endpoint(SharedDataInterface<T> buffer, WireCodec<T> codec) {
+            this.buffer = buffer;
+            this.codec = codec;
+        }
+    }
+
+    public UdpServer(int port) throws IOException {
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(port));
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    public <T> void bind(String name, SharedDataInterface<T> buffer, WireCodec<T> codec) {
+        buffers.put(name, new Endpoint<>(buffer, codec));
+    }
+
+    public void bind(String name, StatusBoardInterface board) {
+        boards.put(name, board);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                selector.select();
+                selector.selectedKeys().clear();
+                in.clear();
+                SocketAddress from;
+                while ((from = channel.receive(in)) != null) {
+                    in.flip();
+                    handle(from);
+                    in.clear();
+                }
+            } catch (IOException e) {
+                Error.handleError(e);
+            }
+        }
+    }
+
+    private void handle(SocketAddress from) throws IOException {
+        long clientId = in.getLong();
+        int sequence = in.getInt();
+        Call last = calls.get(clientId);
+        if (last != null && sequence - last.sequence <= 0) {
+            // sent again, so answer again if it has finished, otherwise its reply is still to come
+            ByteBuffer reply = last.reply;
+            if (sequence == last.sequence && reply != null) {
+                channel.send(reply.duplicate(), from);
+            }
+            return;
+        }
+        Call call = new Call(sequence);
+        calls.put(clientId, call);
+        byte operation = in.get();
+        String name = UdpClient.getString(in);
+        out.clear();
+        out.putInt(sequence);
+        out.put(UdpClient.OK);
+        try {
+            boolean replied;
+            if (operation >= UdpClient.STATUS_PUT) {
+                StatusBoardInterface board = boards.get(name);
+                if (board == null) {
+                    throw new IllegalArgumentException("Nothing bound to " + name);
+                }
+                replied = handleStatusBoard(board, operation);
+            } else {
+                Endpoint<?> endpoint = buffers.get(name);
+                if (endpoint == null) {
+                    throw new IllegalArgumentException("Nothing bound to " + name);
+                }
+                replied = handleBuffer(endpoint, operation, call, from);
+            }
+            if (replied) {
+                return;
+            }
+        } catch (RuntimeException | RemoteException e) {
+            out.clear();
+            out.putInt(sequence);
+            out.put(UdpClient.ERROR);
+            UdpClient.putString(out, describe(e));
+        }
+        out.flip();
+        complete(call, out, from);
+    }
+
+    // keeps a copy of the reply for the call being sent again, then sends it
+    private void complete(Call call, ByteBuffer reply, SocketAddress from) throws IOException {
+        ByteBuffer copy = ByteBuffer.allocate(reply.remaining());
+        copy.put(reply).flip();
+        call.reply = copy;
+        channel.send(copy.duplicate(), from);
+    }
+
+    // runs an operation that may wait on a waiter thread, which replies when it's done
+    private void runOnWaiter(Call call, SocketAddress from, int resultSize, Blocking operation) {
+        waiters.execute(() -> {
+            ByteBuffer reply = ByteBuffer.allocate(UdpClient.HEADER_SIZE + resultSize);
+            reply.putInt(call.sequence);
+            reply.put(UdpClient.OK);
+            try {
+                operation.run(reply);
+            } catch (RuntimeException | RemoteException e) {
+                reply.clear();
+                reply.putInt(call.sequence);
+                reply.put(UdpClient.ERROR);
+                UdpClient.putString(reply, describe(e));
+            }
+            reply.flip();
+            try {
+                complete(call, reply, from);
+            } catch (IOException e) {
+                Error.handleError(e);
+            }
+        });
+    }
+
+    // returns true if the reply will be sent later by a waiter
+    private <T> boolean handleBuffer(Endpoint<T> endpoint, byte operation, Call call, SocketAddress from) throws RemoteException {
+        SharedDataInterface<T> buffer = endpoint.buffer;
+        WireCodec<T> codec = endpoint.codec;
+        switch (operation) {
+            case UdpClient.PUT:
+                T message = codec.read(in);
+                runOnWaiter(call, from, 0, reply -> buffer.put(message));
+                return true;
+            case UdpClient.PUT_ALL:
+                int count = in.getInt();
+                ArrayList<T> batch = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    batch.add(codec.read(in));
+                }
+                runOnWaiter(call, from, 0, reply -> buffer.putAll(batch));
+                return true;
+            case UdpClient.REMOVE:
+                codec.writeOptional(buffer.remove(), out);
+                break;
+            case UdpClient.GET:
+                codec.writeOptional(buffer.get(in.getInt()), out);
+                break;
+            case UdpClient.REMOVE_MESSAGE:
+                buffer.remove(codec.read(in));
+                break;
+            case UdpClient.SIZE:
+                out.putInt(buffer.size());
+                break;
+            case UdpClient.TAKE:
+                long timeoutMillis = in.getLong();
+                T taken = buffer.remove();
+                if (taken == null && timeoutMillis > 0) {
+                    runOnWaiter(call, from, 1 + codec.getSize(), reply -> codec.writeOptional(buffer.take(timeoutMillis), reply));
+                    return true;
+                }
+                codec.writeOptional(taken, out);
+                break;
+            case UdpClient.DRAIN_TO:
+                ArrayList<T> drained = buffer.drainTo(in.getInt());
+                out.putInt(drained.size());
+                for (T drainedMessage : drained) {
+                    codec.write(drainedMessage, out);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+        return false;
+    }
+
+    private boolean handleStatusBoard(StatusBoardInterface board, byte operation) throws RemoteException {
+        switch (operation) {
+            case UdpClient.STATUS_PUT:
+                board.put(WireCodec.ELEVATOR_STATUS.read(in));
+                break;
+            case UdpClient.STATUS_PUT_ALL:
+                int count = in.getInt();
+                ArrayList<ElevatorStatus> batch = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    batch.add(WireCodec.ELEVATOR_STATUS.read(in));
+                }
+                board.putAll(batch);
+                break;
+            case UdpClient.STATUS_GET:
+                WireCodec.ELEVATOR_STATUS.writeOptional(board.get(in.getInt()), out);
+                break;
+            case UdpClient.STATUS_VERSION:
+                out.putLong(board.getVersion());
+                break;
+            case UdpClient.STATUS_SLOT_VERSION:
+                out.putLong(board.getVersion(in.getInt()));
+                break;
+            case UdpClient.STATUS_SIZE:
+                out.putInt(board.size());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+        return false;
+    }
+
+    // keeps error replies within the header room of a reply
+    private static String describe(Exception e) {
+        String description = String.valueOf(e);
+        return description.length() > 200 ? description.substring(0, 200) : description;
+    }
+}
@@ -0,0 +1,81 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+
+/**
+ * Client side of a buffer bound on a UdpServer, used in place of the RMI stub when the UDP transport is selected.
+ */
+public class UdpSharedData<T> implements SharedDataInterface<T> {
+    private final UdpClient client;
+    private final WireCodec<T> codec;
+    private final int maxBatch; // messages that fit in one datagram
+
+    public UdpSharedData(InetSocketAddress server, String name, WireCodec<T> codec) throws IOException {
+        client = new UdpClient(server, name);
+        this.codec = codec;
+        maxBatch = (UdpClient.MAX_DATAGRAM - UdpClient.HEADER_SIZE) / (codec.getSize() + 1);
+    }
+
+    @Override
+    public T remove() throws RemoteException {
+        return client.call(UdpClient.REMOVE, buffer -> {}, 0, codec::readOptional);
+    }
+
+    @Override
+    public void put(T message) throws RemoteException {
+        client.call(UdpClient.PUT, buffer -> codec.write(message, buffer), 0, buffer -> null);
+    }
+
+    /**
+     * Sends the messages in as few datagrams as they fit in.
+     */
+    @Override
+    public void putAll(ArrayList<T> messages) throws RemoteException {
+        for (int start = 0; start < messages.size(); start += maxBatch) {
+            int end = Math.min(start + maxBatch, messages.size());
+            int first = start;
+            client.call(UdpClient.PUT_ALL, buffer -> {
+                buffer.putInt(end - first);
+                for (int i = first; i < end; i++) {
+                    codec.write(messages.get(i), buffer);
+                }
+            }, 0, buffer -> null);
+        }
+    }
+
+    @Override
+    public T get(int index) throws RemoteException {
+        return client.call(UdpClient.GET, buffer -> buffer.putInt(index), 0, codec::readOptional);
+    }
+
+    @Override
+    public void remove(T message) throws RemoteException {
+        client.call(UdpClient.REMOVE_MESSAGE, buffer -> codec.write(message, buffer), 0, buffer -> null);
+    }
+
+    @Override
+    public int size() throws RemoteException {
+        return client.call(UdpClient.SIZE, buffer -> {}, 0, buffer -> buffer.getInt());
+    }
+
+    @Override
+    public T take(long timeoutMillis) throws RemoteException {
+        return client.call(UdpClient.TAKE, buffer -> buffer.putLong(timeoutMillis), timeoutMillis, codec::readOptional);
+    }
+
+    /**
+     * May return fewer than maxMessages even if more are buffered, at most what fits in one datagram.
+     */
+    @Override
+    public ArrayList<T> drainTo(int maxMessages) throws RemoteException {
+        return client.call(UdpClient.DRAIN_TO, buffer -> buffer.putInt(Math.min(maxMessages, maxBatch)), 0, buffer -> {
+            int count = buffer.getInt();
+            ArrayList<T> drained = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                drained.add(codec.read(buffer));
+            }
+            return drained;
+        });
+    }
+}
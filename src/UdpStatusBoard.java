@@ -0,0 +1,51 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+
+/**
+ * Client side of a status board bound on a UdpServer, used in place of the RMI stub when the UDP transport is selected.
+ */
+public class UdpStatusBoard implements StatusBoardInterface {
+    private final UdpClient client;
+
+    public UdpStatusBoard(InetSocketAddress server, String name) throws IOException {
+        client = new UdpClient(server, name);
+    }
+
+    @Override
+    public void put(ElevatorStatus status) throws RemoteException {
+        client.call(UdpClient.STATUS_PUT, buffer -> WireCodec.ELEVATOR_STATUS.write(status, buffer), 0, buffer -> null);
+    }
+
+    // a status board batch is at most one status per elevator, so it always fits in one datagram
+    @Override
+    public void putAll(ArrayList<ElevatorStatus> statuses) throws RemoteException {
+        client.call(UdpClient.STATUS_PUT_ALL, buffer -> {
+            buffer.putInt(statuses.size());
+            for (ElevatorStatus status : statuses) {
+                WireCodec.ELEVATOR_STATUS.write(status, buffer);
+            }
+        }, 0, buffer -> null);
+    }
+
+    @Override
+    public ElevatorStatus get(int elevatorNumber) throws RemoteException {
+        return client.call(UdpClient.STATUS_GET, buffer -> buffer.putInt(elevatorNumber), 0, WireCodec.ELEVATOR_STATUS::readOptional);
+    }
+
+    @Override
+    public long getVersion() throws RemoteException {
+        return client.call(UdpClient.STATUS_VERSION, buffer -> {}, 0, buffer -> buffer.getLong());
+    }
+
+    @Override
+    public long getVersion(int elevatorNumber) throws RemoteException {
+        return client.call(UdpClient.STATUS_SLOT_VERSION, buffer -> buffer.putInt(elevatorNumber), 0, buffer -> buffer.getLong());
+    }
+
+    @Override
+    public int size() throws RemoteException {
+        return client.call(UdpClient.STATUS_SIZE, buffer -> {}, 0, buffer -> buffer.getInt());
+    }
+}
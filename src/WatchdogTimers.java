@@ -0,0 +1,135 @@
+import java.util.Arrays;
+
+/**
+ * Fault timers keyed by a small integer id (the elevator number), with deadlines from System.nanoTime().
+ * The timers live in an indexed binary min-heap held in plain arrays, so arming, re-arming and cancelling
+ * a timer are O(log n) and the earliest deadline is always at the root. Nothing is allocated after construction.
+ */
+public class WatchdogTimers {
+    private final long[] deadlines; // index is for id, only meaningful while armed
+    private final int[] heap; // ids ordered by deadline
+    private final int[] positions; // index is for id, position in heap or -1 when not armed
+    private int size = 0;
+
+    /**
+     * @param maxId The largest id that will be armed, ids start at 1.
+     */
+    public WatchdogTimers(int maxId) {
+        deadlines = new long[maxId + 1];
+        heap = new int[maxId + 1];
+        positions = new int[maxId + 1];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Starts the timer, or moves its deadline if it is already armed.
+     * @param id The timer's id.
+     * @param deadlineNanos When the timer expires, in System.nanoTime() terms.
+     */
+    public void arm(int id, long deadlineNanos) {
+        if (positions[id] == -1) {
+            deadlines[id] = deadlineNanos;
+            heap[size] = id;
+            positions[id] = size;
+            size++;
+            siftUp(size - 1);
+        } else {
+            long previous = deadlines[id];
+            deadlines[id] = deadlineNanos;
+            if (deadlineNanos - previous < 0) {
+                siftUp(positions[id]);
+            } else {
+                siftDown(positions[id]);
+            }
+        }
+    }
+
+    public void cancel(int id) {
+        int position = positions[id];
+        if (position == -1) {
+            return;
+        }
+        size--;
+        int last = heap[size];
+        positions[id] = -1;
+        if (position != size) {
+            heap[position] = last;
+            positions[last] = position;
+            siftDown(position);
+            siftUp(positions[last]);
+        }
+    }
+
+    public boolean isArmed(int id) {
+        return positions[id] != -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param nowNanos The current System.nanoTime().
+     * @return Nanoseconds until the earliest timer expires, 0 if one already has, Long.MAX_VALUE if none are armed.
+     */
+    public long nanosUntilNext(long nowNanos) {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadlines[heap[0]] - nowNanos);
+    }
+
+    /**
+     * Disarms and returns the earliest expired timer.
+     * @param nowNanos The current System.nanoTime().
+     * @return The id of a timer whose deadline has passed, or -1 if none has.
+     */
+    public int pollExpired(long nowNanos) {
+        if (size == 0 || deadlines[heap[0]] - nowNanos > 0) {
+            return -1;
+        }
+        int id = heap[0];
+        cancel(id);
+        return id;
+    }
+
+    private boolean earlier(int a, int b) {
+        return deadlines[heap[a]] - deadlines[heap[b]] < 0;
+    }
+
+    private void swap(int a, int b) {
+        int id = heap[a];
+        heap[a] = heap[b];
+        heap[b] = id;
+        positions[heap[a]] = a;
+        positions[heap[b]] = b;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!earlier(position, parent)) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && earlier(child + 1, child)) {
+                child++;
+            }
+            if (!earlier(child, position)) {
+                return;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+}
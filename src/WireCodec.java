@@ -0,0 +1,61 @@
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Fixed-width binary encodings of the messages sent over the UDP transport.
+ * Each message's own encoding is used, the same bytes as its external form over RMI without the stream and class
+ * headers.
+ */
+public class WireCodec<T> {
+    public static final WireCodec<Request> REQUEST = new WireCodec<>(Request.SIZE, Request::write, Request::read);
+
+    public static final WireCodec<ElevatorStatus> ELEVATOR_STATUS = new WireCodec<>(8,
+            (status, buffer) -> buffer.putLong(status.pack()),
+            buffer -> ElevatorStatus.unpack(buffer.getLong()));
+
+    public static final WireCodec<Command> COMMAND = new WireCodec<>(4,
+            (command, buffer) -> buffer.putInt(command.pack()),
+            buffer -> Command.unpack(buffer.getInt()));
+
+    public static final WireCodec<Integer> INTEGER = new WireCodec<>(4,
+            (value, buffer) -> buffer.putInt(value),
+            ByteBuffer::getInt);
+
+    private final int size;
+    private final BiConsumer<T, ByteBuffer> writer;
+    private final Function<ByteBuffer, T> reader;
+
+    private WireCodec(int size, BiConsumer<T, ByteBuffer> writer, Function<ByteBuffer, T> reader) {
+        this.size = size;
+        this.writer = writer;
+        this.reader = reader;
+    }
+
+    /**
+     * @return The number of bytes one message takes, not counting the presence byte of writeOptional.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public void write(T message, ByteBuffer buffer) {
+        writer.accept(message, buffer);
+    }
+
+    public T read(ByteBuffer buffer) {
+        return reader.apply(buffer);
+    }
+
+    // a presence byte followed by the message, for results that may be null
+    public void writeOptional(T message, ByteBuffer buffer) {
+        buffer.put((byte) (message == null ? 0 : 1));
+        if (message != null) {
+            write(message, buffer);
+        }
+    }
+
+    public T readOptional(ByteBuffer buffer) {
+        return buffer.get() == 0 ? null : read(buffer);
+    }
+}
@@ -0,0 +1,71 @@
+import org.junit.jupiter.api.Test;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveRequestsTest {
+
+    @Test
+    void testIdsGivenOnceAndKeptWhenAddedAgain() {
+        ActiveRequests active = new ActiveRequests();
+        Request first = request(3, 7);
+        Request second = request(3, 1);
+        assertEquals(1, active.add(first));
+        assertEquals(2, active.add(second));
+        assertEquals(2, active.size());
+
+        // a re-provisioned request comes back with the id it already has
+        assertSame(first, active.remove(1));
+        assertNull(active.remove(1));
+        assertEquals(1, active.add(first));
+        assertSame(first, active.get(1));
+        assertEquals(List.of(first, second), active.toList());
+    }
+
+    @Test
+    void testNotesWhenMoved() {
+        ActiveRequests active = new ActiveRequests();
+        Request a = request(3, 7);
+        active.add(a);
+        assertEquals(ActiveRequests.NEVER_MOVED, active.getMovedAt(a.getId()));
+        active.moved(a.getId(), 5000);
+        assertEquals(5000, active.getMovedAt(a.getId()));
+
+        // a re-provisioned request starts over
+        active.remove(a.getId());
+        active.add(a);
+        assertEquals(ActiveRequests.NEVER_MOVED, active.getMovedAt(a.getId()));
+    }
+
+    @Test
+    void testMatchesMapThroughManyAddsAndRemoves() {
+        Random random = new Random(1);
+        ActiveRequests active = new ActiveRequests();
+        HashMap<Integer, Request> expected = new HashMap<>();
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            if (ids.isEmpty() || random.nextInt(5) < 3) {
+                Request request = request(1 + random.nextInt(22), 1 + random.nextInt(22));
+                int id = active.add(request);
+                expected.put(id, request);
+                ids.add(id);
+            } else {
+                int id = ids.remove(random.nextInt(ids.size()));
+                assertSame(expected.remove(id), active.remove(id));
+            }
+            assertEquals(expected.size(), active.size());
+        }
+        for (int id = 1; id <= 12000; id++) {
+            assertSame(expected.get(id), active.get(id), "request " + id);
+        }
+        assertEquals(expected.size(), active.toList().size());
+    }
+
+    private static Request request(int source, int destination) {
+        Request.Direction direction = destination > source ? Request.Direction.UP : Request.Direction.DOWN;
+        return new Request(LocalTime.parse("14:05:15.0"), source, direction, destination, 0, false);
+    }
+}
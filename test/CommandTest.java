@@ -1,5 +1,7 @@
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CommandTest {
@@ -19,4 +21,25 @@ class CommandTest {
         Command command = new Command(state, movement);
         assertEquals("State: IDLE, Movement: UP", command.toString());
     }
+
+    @Test
+    void testSerializationRoundTrip() throws Exception {
+        Command command = new Command(Elevator.ElevatorState.DOORS_OPEN, Elevator.ElevatorMovement.STOP);
+        Command copy = (Command) SerializationHelper.roundTrip(command);
+        assertEquals(command.getState(), copy.getState());
+        assertEquals(command.getMovement(), copy.getMovement());
+    }
+
+    @Test
+    void testTargetFloorRoundTrip() throws Exception {
+        Command command = new Command(Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP, 300);
+        assertEquals("State: MOVING, Movement: UP, Target Floor: 300", command.toString());
+        Command copy = (Command) SerializationHelper.roundTrip(command);
+        assertEquals(300, copy.getTargetFloor());
+
+        ByteBuffer buffer = ByteBuffer.allocate(WireCodec.COMMAND.getSize());
+        WireCodec.COMMAND.write(command, buffer);
+        buffer.flip();
+        assertEquals(300, WireCodec.COMMAND.read(buffer).getTargetFloor());
+    }
 }
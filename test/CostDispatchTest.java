@@ -0,0 +1,35 @@
+import org.junit.jupiter.api.Test;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostDispatchTest {
+    private final CostDispatch dispatch = new CostDispatch();
+    private final Request request = new Request(LocalTime.parse("14:05:15.0"), 5, Request.Direction.UP, 8, 0, false);
+
+    @Test
+    void testIdleScoreIsTravelAndStopTime() {
+        ElevatorStatus idle = new ElevatorStatus(1, 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP);
+        int floor = Elevator.ElevatorState.MOVING.getSleepTime();
+        int stop = Elevator.ElevatorState.DOORS_OPEN.getSleepTime();
+
+        // 4 floors to pick up, 3 floors to drop off, a stop at each end
+        assertEquals(7 * floor + 2 * stop, dispatch.score(idle, new ArrayList<>(), request));
+    }
+
+    @Test
+    void testQueuedStopsCountAgainstElevator() {
+        ElevatorStatus idle = new ElevatorStatus(1, 5, 5, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP);
+        ArrayList<RequestPickedUpPair> queue = new ArrayList<>();
+        int emptyScore = dispatch.score(idle, queue, request);
+        dispatch.assign(queue, new Request(LocalTime.parse("14:05:10.0"), 1, Request.Direction.UP, 20, 0, false));
+
+        assertTrue(dispatch.score(idle, queue, request) > emptyScore);
+    }
+
+    @Test
+    void testShutdownElevatorCannotServe() {
+        ElevatorStatus shutdown = new ElevatorStatus(1, 5, 5, Elevator.ElevatorState.SHUTDOWN, Elevator.ElevatorMovement.STOP);
+        assertEquals(Integer.MAX_VALUE, dispatch.score(shutdown, new ArrayList<>(), request));
+    }
+}
@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostTableTest {
+    private static final int CARS = 4;
+
+    // counts the elevators it scores
+    private static class CountingDispatch extends CostDispatch {
+        int scored = 0;
+
+        @Override
+        public int score(ElevatorStatus status, List<RequestPickedUpPair> queue, Request request) {
+            scored++;
+            return super.score(status, queue, request);
+        }
+    }
+
+    // counts the times it scores the whole fleet at once
+    private static class CountingHeuristicDispatch extends HeuristicDispatch {
+        int batches = 0;
+
+        @Override
+        public void scoreAll(FleetState fleet, List<? extends List<RequestPickedUpPair>> queues, Request request, int[] scores) {
+            batches++;
+            super.scoreAll(fleet, queues, request, scores);
+        }
+    }
+
+    @Test
+    void testScoresReusedUntilElevatorChanges() {
+        FleetState fleet = new FleetState(CARS);
+        ArrayList<ArrayList<RequestPickedUpPair>> queues = new ArrayList<>();
+        for (int i = 0; i < CARS; i++) {
+            fleet.set(i, new ElevatorStatus(i + 1, 1 + 5 * i, 1 + 5 * i, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+            queues.add(new ArrayList<>());
+        }
+        CountingDispatch dispatch = new CountingDispatch();
+        CostTable table = new CostTable(dispatch);
+        int[] scores = new int[CARS];
+        int[] expected = new int[CARS];
+
+        table.scoreAll(fleet, queues, request(3, 9), scores);
+        assertEquals(CARS, dispatch.scored);
+        table.scoreAll(fleet, queues, request(3, 9), scores);
+        assertEquals(CARS, dispatch.scored); // every score reused
+        table.scoreAll(fleet, queues, request(3, 10), scores);
+        assertEquals(2 * CARS, dispatch.scored); // a new destination is a new key
+
+        // only the elevator whose queue changed is scored again
+        dispatch.assign(queues.get(1), request(4, 8));
+        fleet.queueChanged(1);
+        table.scoreAll(fleet, queues, request(3, 9), scores);
+        assertEquals(2 * CARS + 1, dispatch.scored);
+        new CostDispatch().scoreAll(fleet, queues, request(3, 9), expected);
+        assertArrayEquals(expected, scores);
+
+        // and the one that reported
+        fleet.set(2, new ElevatorStatus(3, 8, 12, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        table.scoreAll(fleet, queues, request(3, 9), scores);
+        assertEquals(2 * CARS + 2, dispatch.scored);
+        new CostDispatch().scoreAll(fleet, queues, request(3, 9), expected);
+        assertArrayEquals(expected, scores);
+        assertEquals(CARS * 5 - (2 * CARS + 2), table.getHits());
+    }
+
+    @Test
+    void testHeuristicSharesScoresAcrossDestinations() {
+        FleetState fleet = new FleetState(CARS);
+        ArrayList<ArrayList<RequestPickedUpPair>> queues = new ArrayList<>();
+        for (int i = 0; i < CARS; i++) {
+            fleet.set(i, new ElevatorStatus(i + 1, 2, 2, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+            queues.add(new ArrayList<>());
+        }
+        CostTable table = new CostTable(new HeuristicDispatch());
+        int[] scores = new int[CARS];
+        table.scoreAll(fleet, queues, request(6, 9), scores);
+        table.scoreAll(fleet, queues, request(6, 1), scores);
+        assertEquals(CARS, table.getHits());
+        assertEquals(40, scores[0]);
+    }
+
+    @Test
+    void testWholeFleetScoredInOneCallWhenNothingCanBeReused() {
+        FleetState fleet = new FleetState(CARS);
+        ArrayList<ArrayList<RequestPickedUpPair>> queues = new ArrayList<>();
+        for (int i = 0; i < CARS; i++) {
+            fleet.set(i, new ElevatorStatus(i + 1, 1 + 5 * i, 1 + 5 * i, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+            queues.add(new ArrayList<>());
+        }
+        CountingHeuristicDispatch dispatch = new CountingHeuristicDispatch();
+        CostTable table = new CostTable(dispatch);
+        int[] scores = new int[CARS];
+        int[] expected = new int[CARS];
+
+        table.scoreAll(fleet, queues, request(3, 9), scores);
+        assertEquals(1, dispatch.batches);
+        assertEquals(CARS, table.getMisses());
+
+        // one changed elevator is scored on its own
+        fleet.queueChanged(1);
+        table.scoreAll(fleet, queues, request(3, 9), scores);
+        assertEquals(1, dispatch.batches);
+        assertEquals(CARS + 1, table.getMisses());
+
+        // every elevator reported, so the fleet is scored in one call again
+        for (int i = 0; i < CARS; i++) {
+            fleet.set(i, new ElevatorStatus(i + 1, 2 + 5 * i, 2 + 5 * i, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        }
+        table.scoreAll(fleet, queues, request(3, 9), scores);
+        assertEquals(2, dispatch.batches);
+        assertEquals(2 * CARS + 1, table.getMisses());
+        new HeuristicDispatch().scoreAll(fleet, queues, request(3, 9), expected);
+        assertArrayEquals(expected, scores);
+    }
+
+    private static Request request(int source, int destination) {
+        Request.Direction direction = destination > source ? Request.Direction.UP : Request.Direction.DOWN;
+        return new Request(LocalTime.parse("14:05:15.0"), source, direction, destination, 0, false);
+    }
+}
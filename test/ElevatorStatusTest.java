@@ -67,4 +67,20 @@ class ElevatorStatusTest {
         String expectedToString = "Number: 1, Current Floor: 5, Current State: IDLE, Movement: UP";
         assertEquals(expectedToString, status.toString());
     }
+
+    @Test
+    public void testPackRoundTrip() {
+        ElevatorStatus status = new ElevatorStatus(24, 100, 3, Elevator.ElevatorState.HARD_FAULT, Elevator.ElevatorMovement.DOWN);
+        ElevatorStatus copy = ElevatorStatus.unpack(status.pack());
+        assertEquals(status, copy);
+        assertEquals(3, copy.getDestinationFloor());
+    }
+
+    @Test
+    public void testSerializationRoundTrip() throws Exception {
+        ElevatorStatus status = new ElevatorStatus(2, 17, 4, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.DOWN);
+        ElevatorStatus copy = (ElevatorStatus) SerializationHelper.roundTrip(status);
+        assertEquals(status, copy);
+        assertEquals(4, copy.getDestinationFloor());
+    }
 }
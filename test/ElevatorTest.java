@@ -1,11 +1,17 @@
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class ElevatorTest {
     @Test
     void testRespondToCommand_ShutDown() {
-        Elevator elevator = new Elevator(1, mock(SharedDataInterface.class), mock(SharedDataInterface.class));
+        Elevator elevator = new Elevator(1, mock(StatusBoardInterface.class), mock(SharedDataInterface.class));
         Command shutdownCommand = new Command(Elevator.ElevatorState.SHUTDOWN, Elevator.ElevatorMovement.STOP);
         elevator.respondToCommand(shutdownCommand);
         assertEquals(elevator.getCurrentState(), Elevator.ElevatorState.SHUTDOWN);
@@ -15,7 +21,7 @@ class ElevatorTest {
 
     @Test
     void testRespondToCommand_DoorsOpen() {
-        Elevator elevator = new Elevator(1, mock(SharedDataInterface.class), mock(SharedDataInterface.class));
+        Elevator elevator = new Elevator(1, mock(StatusBoardInterface.class), mock(SharedDataInterface.class));
         Command doorsOpenCommand = new Command(Elevator.ElevatorState.DOORS_OPEN, Elevator.ElevatorMovement.STOP);
         elevator.respondToCommand(doorsOpenCommand);
         assertEquals(elevator.getCurrentState(), Elevator.ElevatorState.DOORS_OPEN);
@@ -25,7 +31,7 @@ class ElevatorTest {
 
     @Test
     void testRespondToCommand_Idle() {
-        Elevator elevator = new Elevator(1, mock(SharedDataInterface.class), mock(SharedDataInterface.class));
+        Elevator elevator = new Elevator(1, mock(StatusBoardInterface.class), mock(SharedDataInterface.class));
         Command idleCommand = new Command(Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP);
         elevator.respondToCommand(idleCommand);
         assertEquals(elevator.getCurrentState(), Elevator.ElevatorState.IDLE);
@@ -35,16 +41,43 @@ class ElevatorTest {
 
     @Test
     void testRespondToCommand_Null() {
-        Elevator elevator = new Elevator(1, mock(SharedDataInterface.class), mock(SharedDataInterface.class));
+        Elevator elevator = new Elevator(1, mock(StatusBoardInterface.class), mock(SharedDataInterface.class));
         elevator.respondToCommand(null);
         assertEquals(elevator.getCurrentState(), Elevator.ElevatorState.IDLE);
         assertFalse(elevator.isShutdown());
         assertTrue(elevator.isPrintedIdle());
     }
 
+    @Test
+    void testMovesToTargetFloorWithoutFurtherCommands() throws Exception {
+        StatusBoardStub statuses = new StatusBoardStub();
+        SharedDataInterfaceStub<Command> commands = new SharedDataInterfaceStub<>();
+        Elevator elevator = new Elevator(1, statuses, commands);
+        elevator.respondToCommand(new Command(Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP, 5));
+        for (int floor = 2; floor <= 5; floor++) {
+            elevator.handleState();
+            assertEquals(floor, statuses.get(1).getCurrentFloor());
+            assertEquals(5, statuses.get(1).getDestinationFloor());
+            elevator.respondToCommand(elevator.getCommand()); // nothing sent, the elevator keeps going
+        }
+        assertFalse(elevator.isTravelling());
+        assertEquals(Elevator.ElevatorState.IDLE, elevator.getCurrentState());
+    }
+
+    @Test
+    void testNewTargetReplacesTheOldOne() {
+        Elevator elevator = new Elevator(1, new StatusBoardStub(), new SharedDataInterfaceStub<>());
+        elevator.respondToCommand(new Command(Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP, 9));
+        elevator.handleState();
+        elevator.respondToCommand(new Command(Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP, 3));
+        elevator.handleState();
+        assertEquals(3, elevator.getCurrentFloor());
+        assertFalse(elevator.isTravelling());
+    }
+
     @Test
     void testApplyMovement_Up() {
-        Elevator elevator = new Elevator(1, mock(SharedDataInterface.class), mock(SharedDataInterface.class));
+        Elevator elevator = new Elevator(1, mock(StatusBoardInterface.class), mock(SharedDataInterface.class));
         elevator.setCurrentDirection(Elevator.ElevatorMovement.UP);
         int initialFloor = elevator.getCurrentFloor();
         elevator.applyMovement();
@@ -53,7 +86,7 @@ class ElevatorTest {
 
     @Test
     void testApplyMovement_Down() {
-        Elevator elevator = new Elevator(1, mock(SharedDataInterface.class), mock(SharedDataInterface.class));
+        Elevator elevator = new Elevator(1, mock(StatusBoardInterface.class), mock(SharedDataInterface.class));
         elevator.setCurrentDirection(Elevator.ElevatorMovement.DOWN);
         int initialFloor = elevator.getCurrentFloor();
         elevator.applyMovement();
@@ -62,10 +95,71 @@ class ElevatorTest {
 
     @Test
     void testApplyMovement_Stop() {
-        Elevator elevator = new Elevator(1, mock(SharedDataInterface.class), mock(SharedDataInterface.class));
+        Elevator elevator = new Elevator(1, mock(StatusBoardInterface.class), mock(SharedDataInterface.class));
         elevator.setCurrentDirection(Elevator.ElevatorMovement.STOP);
         int initialFloor = elevator.getCurrentFloor();
         elevator.applyMovement();
         assertEquals(initialFloor, elevator.getCurrentFloor());
     }
+
+    @Test
+    void testScheduleOnExecutor() throws Exception {
+        StatusBoard statuses = new StatusBoard(1);
+        MessageBuffer<Command> commands = new MessageBuffer<>();
+        ScheduledExecutorService executor = Execution.newExecutor("Test Elevators");
+        try {
+            Elevator elevator = new Elevator(1, statuses, commands, new ScaledClock(100));
+            elevator.schedule(executor);
+            commands.put(new Command(Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while ((statuses.get(1) == null || statuses.get(1).getCurrentFloor() < 2) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, statuses.get(1).getCurrentFloor());
+
+            commands.put(new Command(Elevator.ElevatorState.SHUTDOWN, Elevator.ElevatorMovement.STOP));
+            while (!elevator.isShutdown() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(elevator.isShutdown());
+        } finally {
+            executor.shutdownNow();
+            UnicastRemoteObject.unexportObject(statuses, true);
+            UnicastRemoteObject.unexportObject(commands, true);
+        }
+    }
+
+    @Test
+    void testCommandReadyWakesWaitingElevator() throws Exception {
+        StatusBoard statuses = new StatusBoard(1);
+        CountDownLatch statusPut = new CountDownLatch(1);
+        statuses.setPutListener(statusPut::countDown);
+        AtomicInteger checks = new AtomicInteger();
+        CountDownLatch firstCheck = new CountDownLatch(1);
+        MessageBuffer<Command> commands = new MessageBuffer<>() {
+            @Override
+            public synchronized Command remove() throws RemoteException {
+                checks.incrementAndGet();
+                firstCheck.countDown();
+                return super.remove();
+            }
+        };
+        ScheduledExecutorService executor = Execution.newExecutor("Test Elevators");
+        try {
+            // a thousand times slower than real time, so the idle second and the move take far longer than the test
+            Elevator elevator = new Elevator(1, statuses, commands, new ScaledClock(0.001));
+            elevator.schedule(executor);
+            assertTrue(firstCheck.await(10, TimeUnit.SECONDS));
+
+            commands.put(new Command(Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+            elevator.commandReady();
+            assertTrue(statusPut.await(10, TimeUnit.SECONDS));
+            assertEquals(2, checks.get()); // only the check commandReady woke, not the end of the idle wait
+            assertEquals(2, statuses.get(1).getCurrentFloor());
+        } finally {
+            executor.shutdownNow();
+            UnicastRemoteObject.unexportObject(statuses, true);
+            UnicastRemoteObject.unexportObject(commands, true);
+        }
+    }
 }
\ No newline at end of file
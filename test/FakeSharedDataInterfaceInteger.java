@@ -1,4 +1,5 @@
 import java.rmi.RemoteException;
+import java.util.ArrayList;
 
 public class FakeSharedDataInterfaceInteger implements SharedDataInterface<Integer> {
     private Integer message = null;
@@ -15,6 +16,13 @@ public class FakeSharedDataInterfaceInteger implements SharedDataInterface<Integ
         this.message = message;
     }
 
+    @Override
+    public void putAll(ArrayList<Integer> messages) {
+        if (!messages.isEmpty()) {
+            this.message = messages.get(messages.size() - 1);
+        }
+    }
+
     @Override
     public Integer get(int index) throws RemoteException {
         return null;
@@ -30,5 +38,19 @@ public class FakeSharedDataInterfaceInteger implements SharedDataInterface<Integ
         return 0;
     }
 
+    @Override
+    public Integer take(long timeoutMillis) {
+        return remove();
+    }
+
+    @Override
+    public ArrayList<Integer> drainTo(int maxMessages) {
+        ArrayList<Integer> drained = new ArrayList<>();
+        if (message != null && maxMessages > 0) {
+            drained.add(remove());
+        }
+        return drained;
+    }
+
 
 }
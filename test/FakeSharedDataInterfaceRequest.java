@@ -18,6 +18,11 @@ public class FakeSharedDataInterfaceRequest implements SharedDataInterface<Reque
         requests.add(message);
     }
 
+    @Override
+    public void putAll(ArrayList<Request> messages) throws RemoteException {
+        requests.addAll(messages);
+    }
+
     @Override
     public Request get(int index) throws RemoteException {
         if (index >= 0 && index < requests.size()) {
@@ -35,4 +40,18 @@ public class FakeSharedDataInterfaceRequest implements SharedDataInterface<Reque
     public int size() throws RemoteException {
         return requests.size();
     }
+
+    @Override
+    public Request take(long timeoutMillis) throws RemoteException {
+        return remove();
+    }
+
+    @Override
+    public ArrayList<Request> drainTo(int maxMessages) throws RemoteException {
+        ArrayList<Request> drained = new ArrayList<>();
+        while (!requests.isEmpty() && drained.size() < maxMessages) {
+            drained.add(requests.remove(0));
+        }
+        return drained;
+    }
 }
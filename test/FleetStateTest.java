@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetStateTest {
+    private static final int CARS = 200;
+
+    @Test
+    void testHeuristicFleetScoresMatchOneAtATime() {
+        Random random = new Random(1);
+        Elevator.ElevatorState[] states = Elevator.ElevatorState.values();
+        FleetState fleet = new FleetState(CARS);
+        ArrayList<ArrayList<RequestPickedUpPair>> queues = new ArrayList<>();
+        for (int i = 0; i < CARS; i++) {
+            queues.add(new ArrayList<>());
+            for (int j = random.nextInt(3); j > 0; j--) {
+                queues.get(i).add(new RequestPickedUpPair(request(1 + random.nextInt(22)), false));
+            }
+            if (i % 16 != 15) { // leave some elevators without a status
+                int floor = 1 + random.nextInt(22);
+                int destination = random.nextInt(4) == 0 ? floor : 1 + random.nextInt(22);
+                fleet.set(i, new ElevatorStatus(i + 1, floor, destination,
+                        states[random.nextInt(states.length)], Elevator.ElevatorMovement.values()[random.nextInt(3)]));
+            }
+        }
+
+        HeuristicDispatch dispatch = new HeuristicDispatch();
+        int[] scores = new int[CARS];
+        for (int floor = 1; floor <= 22; floor++) {
+            Request request = request(floor);
+            dispatch.scoreAll(fleet, queues, request, scores);
+            for (int i = 0; i < CARS; i++) {
+                int expected = fleet.isAvailable(i) ? dispatch.score(fleet.getStatus(i), queues.get(i), request) : Integer.MAX_VALUE;
+                assertEquals(expected, scores[i], "elevator " + (i + 1) + ", floor " + floor);
+            }
+        }
+    }
+
+    @Test
+    void testDefaultScoresSkipUnavailableElevators() {
+        FleetState fleet = new FleetState(3);
+        fleet.set(0, new ElevatorStatus(1, 4, 4, Elevator.ElevatorState.SHUTDOWN, Elevator.ElevatorMovement.STOP));
+        fleet.set(2, new ElevatorStatus(3, 9, 9, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        ArrayList<ArrayList<RequestPickedUpPair>> queues = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            queues.add(new ArrayList<>());
+        }
+
+        int[] scores = new int[3];
+        new CostDispatch().scoreAll(fleet, queues, request(5), scores);
+        assertEquals(Integer.MAX_VALUE, scores[0]);
+        assertEquals(Integer.MAX_VALUE, scores[1]);
+        assertEquals(2, FleetState.lowest(scores));
+        assertEquals(-1, FleetState.lowest(new int[] {Integer.MAX_VALUE, Integer.MAX_VALUE}));
+    }
+
+    private static Request request(int sourceFloor) {
+        int destination = sourceFloor == 22 ? 1 : sourceFloor + 1;
+        Request.Direction direction = destination > sourceFloor ? Request.Direction.UP : Request.Direction.DOWN;
+        return new Request(LocalTime.parse("14:05:15.0"), sourceFloor, direction, destination, 0, false);
+    }
+}
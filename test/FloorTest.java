@@ -1,8 +1,10 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
 import java.time.LocalTime;
-import java.util.ArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -28,7 +30,7 @@ class FloorTest {
         testRequest = new Request(time, 1, Request.Direction.UP, 2, 0, false); 
 
         // Initialize the Floor instance with the fake interfaces
-        floor = new Floor(1, new ArrayList<>(), fakeScheduler, fakeFromScheduler);
+        floor = new Floor(1, fakeScheduler, fakeFromScheduler);
     }
 
     /**
@@ -93,4 +95,28 @@ class FloorTest {
         // Assert the floor correctly interprets the lack of an elevator arrival
         assertEquals(0, arrivalSignal, "Floor should receive a 0 value indicating no elevator has arrived.");
     }
+
+    /**
+     * Tests that a floor on an executor collects an arrival once told of it, and not before.
+     */
+    @Test
+    void testArrivalsReadyCollectsArrival() throws Exception {
+        MessageBuffer<Integer> arrivals = new MessageBuffer<>();
+        Floor scheduledFloor = new Floor(1, fakeScheduler, arrivals);
+        ScheduledExecutorService executor = Execution.newExecutor("Test Floors");
+        try {
+            scheduledFloor.schedule(executor);
+            arrivals.put(2); // elevator 2 arrived
+            Thread.sleep(300);
+            assertEquals(1, arrivals.size(), "The arrival should wait until the floor is told of it.");
+
+            scheduledFloor.arrivalsReady();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(0, arrivals.size(), "The floor should have collected the arrival.");
+        } finally {
+            executor.shutdownNow();
+            UnicastRemoteObject.unexportObject(arrivals, true);
+        }
+    }
 }
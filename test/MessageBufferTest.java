@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageBufferTest {
+    @Test
+    void testCapacityRoundedToPowerOfTwo() throws RemoteException {
+        MessageBuffer<Integer> buffer = new MessageBuffer<>(5, MessageBuffer.OverflowPolicy.REJECT);
+        assertEquals(8, buffer.getCapacity());
+    }
+
+    @Test
+    void testCapacityAboveLargestPowerOfTwoRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new MessageBuffer<Integer>(MessageBuffer.MAX_CAPACITY + 1, MessageBuffer.OverflowPolicy.REJECT));
+        assertThrows(IllegalArgumentException.class, () -> new MessageBuffer<Integer>(Integer.MAX_VALUE, MessageBuffer.OverflowPolicy.REJECT));
+    }
+
+    @Test
+    void testFifoOrderAcrossWrapAround() throws RemoteException {
+        MessageBuffer<Integer> buffer = new MessageBuffer<>(4, MessageBuffer.OverflowPolicy.REJECT);
+        for (int i = 0; i < 10; i++) {
+            buffer.put(i);
+            buffer.put(i + 100);
+            assertEquals(Integer.valueOf(i), buffer.remove());
+            assertEquals(Integer.valueOf(i + 100), buffer.remove());
+        }
+        assertNull(buffer.remove());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testDropOldestWhenFull() throws RemoteException {
+        MessageBuffer<Integer> buffer = new MessageBuffer<>(2, MessageBuffer.OverflowPolicy.DROP_OLDEST);
+        buffer.put(1);
+        buffer.put(2);
+        buffer.put(3);
+        assertEquals(2, buffer.size());
+        assertEquals(Integer.valueOf(2), buffer.remove());
+        assertEquals(Integer.valueOf(3), buffer.remove());
+    }
+
+    @Test
+    void testRejectWhenFull() throws RemoteException {
+        MessageBuffer<Integer> buffer = new MessageBuffer<>(1, MessageBuffer.OverflowPolicy.REJECT);
+        buffer.put(1);
+        assertThrows(IllegalStateException.class, () -> buffer.put(2));
+    }
+
+    @Test
+    void testRemoveMessageKeepsOrder() throws RemoteException {
+        MessageBuffer<Integer> buffer = new MessageBuffer<>(4, MessageBuffer.OverflowPolicy.REJECT);
+        buffer.put(1);
+        buffer.remove();
+        buffer.put(2);
+        buffer.put(3);
+        buffer.put(4);
+        buffer.remove(3);
+        assertEquals(Integer.valueOf(2), buffer.get(0));
+        assertEquals(Integer.valueOf(4), buffer.get(1));
+        assertNull(buffer.get(2));
+    }
+
+    @Test
+    void testTakeTimesOutWhenEmpty() throws RemoteException {
+        MessageBuffer<Integer> buffer = new MessageBuffer<>();
+        assertNull(buffer.take(10));
+    }
+
+    @Test
+    void testTakeWakesOnPut() throws Exception {
+        MessageBuffer<Integer> buffer = new MessageBuffer<>();
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+                buffer.put(7);
+            } catch (Exception e) {
+                fail(e.getMessage());
+            }
+        });
+        producer.start();
+        assertEquals(Integer.valueOf(7), buffer.take(5000));
+        producer.join();
+    }
+
+    @Test
+    void testPutAllKeepsOrderAndAppliesPolicy() throws RemoteException {
+        MessageBuffer<Integer> buffer = new MessageBuffer<>(2, MessageBuffer.OverflowPolicy.DROP_OLDEST);
+        ArrayList<Integer> batch = new ArrayList<>();
+        batch.add(1);
+        batch.add(2);
+        batch.add(3);
+        buffer.putAll(batch);
+        assertEquals(Integer.valueOf(2), buffer.remove());
+        assertEquals(Integer.valueOf(3), buffer.remove());
+    }
+
+    @Test
+    void testDrainTo() throws RemoteException {
+        MessageBuffer<Integer> buffer = new MessageBuffer<>();
+        for (int i = 0; i < 5; i++) {
+            buffer.put(i);
+        }
+        ArrayList<Integer> drained = buffer.drainTo(3);
+        assertEquals(3, drained.size());
+        assertEquals(Integer.valueOf(0), drained.get(0));
+        assertEquals(2, buffer.size());
+        assertEquals(2, buffer.drainTo(10).size());
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsServerTest {
+    // a clock that only moves when the test says so
+    private static class ManualClock implements Clock {
+        long now = 0;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public void sleep(long millis) {
+            now += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        @Override
+        public long toRealMillis(long millis) {
+            return 0;
+        }
+    }
+
+    private final ManualClock clock = new ManualClock();
+    private final ArrayList<SharedDataInterface<Command>> toElevators = new ArrayList<>();
+    private final PassengerMetrics passengers = new PassengerMetrics();
+    private final SchedulerMonitor monitor;
+
+    MetricsServerTest() {
+        for (int i = 0; i < 2; i++) {
+            toElevators.add(new SharedDataInterfaceStub<>());
+        }
+        monitor = new SchedulerMonitor(new SharedDataInterfaceStub<>(), new ArrayList<>(), toElevators, passengers, clock);
+    }
+
+    @Test
+    void testUtilizationCountsTimeMovingOrOpen() {
+        monitor.statusReceived(new ElevatorStatus(1, 1, 4, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        clock.sleep(3000);
+        monitor.statusReceived(new ElevatorStatus(1, 4, 4, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        clock.sleep(1000);
+
+        double[] utilizations = monitor.getCarUtilizations();
+        assertEquals(0.75, utilizations[0], 1e-9);
+        assertEquals(0.0, utilizations[1]); // never reported
+    }
+
+    @Test
+    void testServesPrometheusText() throws Exception {
+        toElevators.get(1).put(new Command(Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        monitor.hardFault();
+        monitor.assigned();
+        monitor.cycleCompleted(2000, 3, 7);
+        Request first = new Request(LocalTime.parse("14:05:15.0"), 1, Request.Direction.UP, 4, 0, false);
+        Request second = new Request(LocalTime.parse("14:05:16.0"), 2, Request.Direction.UP, 5, 0, false);
+        passengers.registered(first, 0);
+        passengers.registered(second, 0);
+        passengers.pickedUp(first, TimeUnit.SECONDS.toNanos(2));
+        passengers.pickedUp(second, TimeUnit.MILLISECONDS.toNanos(3500));
+
+        MetricsServer server = new MetricsServer(0, monitor);
+        server.start();
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + "/metrics").openConnection();
+            assertEquals(200, connection.getResponseCode());
+            String text;
+            try (InputStream in = connection.getInputStream()) {
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertTrue(text.contains("# TYPE elevator_faults_total counter\n"));
+            assertTrue(text.contains("elevator_faults_total{type=\"hard\"} 1\n"));
+            assertTrue(text.contains("elevator_command_queue_depth{car=\"2\"} 1\n"));
+            assertTrue(text.contains("elevator_assignments_total 1\n"));
+            assertTrue(text.contains("elevator_active_requests 3\n"));
+            assertTrue(text.contains("elevator_scheduler_cycles_total 1\n"));
+            assertTrue(text.contains("# TYPE elevator_wait_seconds summary\n"));
+            assertTrue(text.contains("elevator_wait_seconds_sum 5.50000\n"));
+            assertTrue(text.contains("elevator_wait_seconds_count 2\n"));
+        } finally {
+            server.stop();
+        }
+    }
+}
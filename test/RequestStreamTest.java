@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.Test;
+import java.io.StringReader;
+import java.time.DateTimeException;
+import java.time.LocalTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestStreamTest {
+    @Test
+    void testParseLine() {
+        Request request = InputParser.parseLine("  02:22:00.15\t2 Up 18 1");
+        assertEquals(LocalTime.of(2, 22, 0, 150_000_000), request.getTime());
+        assertEquals(2, request.getSourceFloor());
+        assertEquals(Request.Direction.UP, request.getDirection());
+        assertEquals(18, request.getDestinationFloor());
+        assertEquals(1, request.getFault());
+        assertEquals(Request.Direction.DOWN, InputParser.parseLine("02:22:00 3 down 1 0").getDirection());
+        assertNull(InputParser.parseLine("02:22:00 3 down 1"));
+        assertNull(InputParser.parseLine("02:22:00 3 down 1 0 extra"));
+        assertNull(InputParser.parseLine(""));
+        assertThrows(DateTimeException.class, () -> InputParser.parseLine("2:2x:00 3 down 1 0"));
+        assertThrows(NumberFormatException.class, () -> InputParser.parseLine("02:22:00 three down 1 0"));
+    }
+
+    @Test
+    void testRequestsComeOutInTimeOrderWithLastMarked() {
+        String file = "02:22:10.0 3 up 5 0\n02:22:00.0 1 up 2 0\n\n02:22:20.0 2 down 1 0\n";
+        RequestStream requests = new RequestStream(new StringReader(file), 2);
+
+        assertEquals(1, requests.peek().getSourceFloor());
+        assertEquals(1, requests.next().getSourceFloor());
+        assertEquals(3, requests.next().getSourceFloor());
+        Request last = requests.next();
+        assertEquals(2, last.getSourceFloor());
+        assertTrue(last.isLastRequest());
+        assertFalse(requests.hasNext());
+    }
+
+    @Test
+    void testFileTooFarOutOfOrderIsRejected() {
+        String file = "02:22:10.0 3 up 5 0\n02:22:20.0 2 down 1 0\n02:22:00.0 1 up 2 0\n";
+        RequestStream requests = new RequestStream(new StringReader(file), 1);
+
+        requests.next();
+        assertThrows(IllegalStateException.class, requests::next); // reading ahead finds the third line
+    }
+
+    @Test
+    void testRequestsOutsideBuildingAreSkipped() {
+        int above = FloorStart.NUM_FLOORS + 1;
+        String file = "02:22:00.0 1 up 2 0\n02:22:10.0 0 up 5 0\n02:22:20.0 3 up " + above + " 0\n";
+        RequestStream requests = new RequestStream(new StringReader(file), 2);
+
+        Request only = requests.next();
+        assertEquals(1, only.getSourceFloor());
+        assertTrue(only.isLastRequest()); // the last request the floors will actually send
+        assertFalse(requests.hasNext());
+    }
+}
@@ -31,4 +31,17 @@ class RequestTest {
         String expectedToString = "Time: 14:05:25.000, Source Floor: 3, Direction: UP, Destination Floor: 5";
         assertEquals(expectedToString, request.toString());
     }
+
+    @Test
+    void testSerializationRoundTrip() throws Exception {
+        LocalTime time = LocalTime.parse("14:05:25.123");
+        Request request = new Request(time, 21, Request.Direction.DOWN, 1, 2, true);
+        Request copy = (Request) SerializationHelper.roundTrip(request);
+        assertEquals(time, copy.getTime());
+        assertEquals(21, copy.getSourceFloor());
+        assertEquals(Request.Direction.DOWN, copy.getDirection());
+        assertEquals(1, copy.getDestinationFloor());
+        assertEquals(2, copy.getFault());
+        assertTrue(copy.isLastRequest());
+    }
 }
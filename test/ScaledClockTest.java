@@ -0,0 +1,32 @@
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScaledClockTest {
+    @Test
+    void testSleepIsScaledDown() throws InterruptedException {
+        ScaledClock clock = new ScaledClock(100);
+        long realStart = System.nanoTime();
+        long clockStart = clock.nanoTime();
+        clock.sleep(2000); // 20 ms of real time
+
+        long realMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - realStart);
+        long clockMillis = TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - clockStart);
+        assertTrue(realMillis >= 20 && realMillis < 1000, "Slept for " + realMillis + " ms");
+        assertTrue(clockMillis >= 2000, "Clock advanced " + clockMillis + " ms");
+    }
+
+    @Test
+    void testRealTimeoutsAreScaledDown() {
+        ScaledClock clock = new ScaledClock(100);
+        assertEquals(100, clock.toRealMillis(10000));
+        assertEquals(1, clock.toRealMillis(10)); // never rounds a wait down to no wait
+        assertEquals(0, clock.toRealMillis(0));
+        assertEquals(10000, Clock.SYSTEM.toRealMillis(10000));
+    }
+
+    @Test
+    void testScaleMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ScaledClock(0));
+    }
+}
@@ -16,7 +16,7 @@ public class SchedulerTest {
     // Stubs for interacting with the Scheduler
     private SharedDataInterfaceStub<Request> fromFloorsStub;
     private ArrayList<SharedDataInterface<Integer>> toFloorsStub;
-    private SharedDataInterfaceStub<ElevatorStatus> fromElevatorsStub;
+    private StatusBoardStub fromElevatorsStub;
     private ArrayList<SharedDataInterface<Command>> toElevatorsStub;
 
     /**
@@ -25,9 +25,9 @@ public class SchedulerTest {
      */
 
     @Before
-    public void setUp() {
+    public void setUp() throws RemoteException {
         fromFloorsStub = new SharedDataInterfaceStub<>();
-        fromElevatorsStub = new SharedDataInterfaceStub<>();
+        fromElevatorsStub = new StatusBoardStub();
         toFloorsStub = new ArrayList<SharedDataInterface<Integer>>();
         toElevatorsStub = new ArrayList<>();
 
@@ -36,11 +36,10 @@ public class SchedulerTest {
         }
 
         // Prepopulate elevatorStatuses within Scheduler to avoid IndexOutOfBoundsException
-        ArrayList<ElevatorStatus> prepopulatedElevatorStatuses = new ArrayList<>();
+        // every status is for elevator 1, so the board keeps the last one: idle on floor 4
         for (int i = 0; i < ElevatorStart.NUM_ELEVATORS; i++) {
-            prepopulatedElevatorStatuses.add(new ElevatorStatus(1, i + 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+            fromElevatorsStub.put(new ElevatorStatus(1, i + 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
         }
-        fromElevatorsStub.setItems(prepopulatedElevatorStatuses);
         // Initialize the Scheduler instance with the prepared stubs
         scheduler = new Scheduler(fromFloorsStub, toFloorsStub, fromElevatorsStub, toElevatorsStub);
     }
@@ -194,8 +193,8 @@ public class SchedulerTest {
         // Simulate the arrival of a request by putting it into the fromFloorsStub
         fromFloorsStub.put(moveRequest);
 
-        // Simulate an elevator status that indicates it is ready to accept a request
-        ElevatorStatus elevatorReadyStatus = new ElevatorStatus(1, 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP);
+        // Simulate an elevator status that indicates it is ready to accept a request, idle above the request floor
+        ElevatorStatus elevatorReadyStatus = new ElevatorStatus(1, 4, 4, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP);
         // Update the elevator's status in the system
         fromElevatorsStub.put(elevatorReadyStatus);
 
@@ -240,10 +239,183 @@ public class SchedulerTest {
         // Simulate the shutdown of Elevator 1
         fromElevatorsStub.put(new ElevatorStatus(1, 1, 2, Elevator.ElevatorState.SHUTDOWN, Elevator.ElevatorMovement.STOP));
         scheduler.runOnce(); // Process the shutdown and trigger re-provisioning of the request
+        scheduler.runOnce(); // Pick the re-provisioned request back up from the floors
 
         // Verify that the request is re-added to the pool for re-assignment
         assertFalse("Re-provisioned requests pool should not be empty after elevator shutdown", scheduler.getActiveRequests().isEmpty());
         Request reProvisionedRequest = scheduler.getActiveRequests().get(0);
         assertEquals("Re-provisioned request should match original request", requestForElevator1, reProvisionedRequest);
     }
+
+    /**
+     * Tests that a burst of requests is taken in a single cycle and spread over the idle elevators
+     * instead of all being queued on the closest one, using the heuristic strategy's queue penalty.
+     */
+    @Test
+    public void testBurstOfRequestsAssignedInOneCycle() throws RemoteException, InterruptedException {
+        scheduler = new Scheduler(fromFloorsStub, toFloorsStub, fromElevatorsStub, toElevatorsStub, new HeuristicDispatch());
+        for (int i = 1; i <= ElevatorStart.NUM_ELEVATORS; i++) {
+            fromElevatorsStub.put(new ElevatorStatus(i, 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        }
+        LocalTime time = LocalTime.parse("14:05:15.0");
+        int burstSize = ElevatorStart.NUM_ELEVATORS * 2;
+        for (int i = 0; i < burstSize; i++) {
+            fromFloorsStub.put(new Request(time, 10, Request.Direction.UP, 20, 0, false));
+        }
+
+        scheduler.runOnce();
+
+        assertEquals("Expected the whole burst to be taken in one cycle", burstSize, scheduler.getActiveRequests().size());
+        for (ArrayList<RequestPickedUpPair> elevatorQueue : scheduler.getElevatorRequests()) {
+            assertEquals("Expected the burst to be spread evenly over the elevators", 2, elevatorQueue.size());
+        }
+    }
+
+    /**
+     * Tests that an elevator on its way up stops for a passenger it passes instead of serving its requests
+     * strictly in the order they were assigned.
+     */
+    @Test
+    public void testElevatorStopsForRequestOnTheWay() throws RemoteException, InterruptedException {
+        LocalTime time = LocalTime.parse("14:05:15.0");
+        fromFloorsStub.put(new Request(time, 4, Request.Direction.UP, 9, 0, false));
+        scheduler.runOnce(); // elevator 1 is idle on floor 4, so it opens its doors there
+        fromFloorsStub.put(new Request(time, 6, Request.Direction.UP, 8, 0, false));
+
+        // the elevator reports it has moved up a floor
+        fromElevatorsStub.put(new ElevatorStatus(1, 5, 9, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        toElevatorsStub.get(0).remove();
+        scheduler.runOnce();
+        fromElevatorsStub.put(new ElevatorStatus(1, 6, 9, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        toElevatorsStub.get(0).remove();
+        scheduler.runOnce();
+
+        Command lastCommand = toElevatorsStub.get(0).get(0);
+        assertEquals("Expected the elevator to stop on floor 6 on its way to floor 9", Elevator.ElevatorState.DOORS_OPEN, lastCommand.getState());
+        for (RequestPickedUpPair pair : scheduler.getElevatorRequests().get(0)) {
+            assertTrue("Expected both passengers to be on board", pair.isPickedUp());
+        }
+    }
+
+    /**
+     * Tests that an elevator is sent to its next stop in one command and left to report its way there.
+     */
+    @Test
+    public void testOneCommandPerTrip() throws RemoteException, InterruptedException {
+        LocalTime time = LocalTime.parse("14:05:15.0");
+        fromFloorsStub.put(new Request(time, 9, Request.Direction.UP, 12, 0, false));
+        scheduler.runOnce(); // elevator 1 is idle on floor 4
+
+        Command command = toElevatorsStub.get(0).remove();
+        assertEquals(Elevator.ElevatorState.MOVING, command.getState());
+        assertEquals(Elevator.ElevatorMovement.UP, command.getMovement());
+        assertEquals(9, command.getTargetFloor());
+
+        for (int floor = 5; floor < 9; floor++) {
+            fromElevatorsStub.put(new ElevatorStatus(1, floor, 9, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+            scheduler.runOnce();
+            assertEquals("Expected no command while the elevator is on its way", 0, toElevatorsStub.get(0).size());
+        }
+        assertEquals(4, scheduler.getNumMovements());
+
+        fromElevatorsStub.put(new ElevatorStatus(1, 9, 9, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        scheduler.runOnce();
+        assertEquals(Elevator.ElevatorState.DOORS_OPEN, toElevatorsStub.get(0).remove().getState());
+    }
+
+    /**
+     * Tests that a request still waiting for its elevator is moved to another elevator once that one is clearly
+     * better placed, but not for a saving smaller than the strategy's margin.
+     */
+    @Test
+    public void testWaitingRequestMovesToBetterElevator() throws RemoteException, InterruptedException {
+        LocalTime time = LocalTime.parse("14:05:15.0");
+        fromFloorsStub.put(new Request(time, 18, Request.Direction.UP, 20, 0, false));
+        scheduler.runOnce(); // elevator 1 is idle on floor 4 and the only one that has reported
+
+        // one floor closer isn't worth moving the request for
+        fromElevatorsStub.put(new ElevatorStatus(2, 5, 5, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        scheduler.runOnce();
+        assertEquals(1, scheduler.getElevatorRequests().get(0).size());
+        assertEquals(0, scheduler.getElevatorRequests().get(1).size());
+
+        fromElevatorsStub.put(new ElevatorStatus(3, 17, 17, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        scheduler.runOnce();
+        assertEquals(0, scheduler.getElevatorRequests().get(0).size());
+        assertEquals(1, scheduler.getElevatorRequests().get(2).size());
+        assertEquals(1, scheduler.getMonitor().getReassignments());
+        Command command = toElevatorsStub.get(2).remove();
+        assertEquals(Elevator.ElevatorMovement.UP, command.getMovement());
+        assertEquals(18, command.getTargetFloor());
+    }
+
+    /**
+     * Tests that a request moved to a better placed elevator isn't moved straight back to the elevator it left,
+     * even once that one is better placed again.
+     */
+    @Test
+    public void testMovedRequestDoesNotMoveBack() throws RemoteException, InterruptedException {
+        LocalTime time = LocalTime.parse("14:05:15.0");
+        fromFloorsStub.put(new Request(time, 18, Request.Direction.UP, 20, 0, false));
+        scheduler.runOnce(); // elevator 1 is idle on floor 4 and the only one that has reported
+        fromElevatorsStub.put(new ElevatorStatus(3, 17, 17, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        scheduler.runOnce();
+        assertEquals(1, scheduler.getElevatorRequests().get(2).size());
+
+        // elevator 3 heads the other way and elevator 1 turns up at the caller's floor
+        fromElevatorsStub.put(new ElevatorStatus(3, 12, 1, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.DOWN));
+        fromElevatorsStub.put(new ElevatorStatus(1, 18, 18, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        scheduler.runOnce();
+        assertEquals(0, scheduler.getElevatorRequests().get(0).size());
+        assertEquals(1, scheduler.getElevatorRequests().get(2).size());
+        assertEquals(1, scheduler.getMonitor().getReassignments());
+    }
+
+    /**
+     * Tests that an elevator on its way to a request that moved to another elevator is stopped instead of
+     * travelling on to a floor where nobody waits for it.
+     */
+    @Test
+    public void testElevatorLosingItsOnlyRequestIsStopped() throws RemoteException, InterruptedException {
+        LocalTime time = LocalTime.parse("14:05:15.0");
+        fromFloorsStub.put(new Request(time, 18, Request.Direction.UP, 20, 0, false));
+        scheduler.runOnce(); // elevator 1 is idle on floor 4 and the only one that has reported
+        Command sent = toElevatorsStub.get(0).remove();
+        assertEquals(Elevator.ElevatorState.MOVING, sent.getState());
+        assertEquals(18, sent.getTargetFloor());
+
+        // elevator 1 sets off and elevator 3 turns up at the caller's floor
+        fromElevatorsStub.put(new ElevatorStatus(1, 5, 18, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        fromElevatorsStub.put(new ElevatorStatus(3, 18, 18, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        scheduler.runOnce();
+        assertEquals(0, scheduler.getElevatorRequests().get(0).size());
+        assertEquals(1, scheduler.getElevatorRequests().get(2).size());
+
+        Command stop = toElevatorsStub.get(0).remove();
+        assertNotNull("Expected elevator 1 to be stopped", stop);
+        assertEquals(Elevator.ElevatorState.IDLE, stop.getState());
+        assertEquals(Elevator.ElevatorMovement.STOP, stop.getMovement());
+        assertNull(toElevatorsStub.get(0).remove());
+    }
+
+    /**
+     * Tests that a request whose arrival event was missed is still taken by the sweep made when waiting for an
+     * event times out.
+     */
+    @Test
+    public void testTimeoutSweepTakesMissedRequests() throws Exception {
+        MessageBuffer<Request> floors = new MessageBuffer<>(); // no put listener, so no event is ever sent
+        scheduler = new Scheduler(floors, toFloorsStub, fromElevatorsStub, toElevatorsStub);
+        Thread schedulerThread = new Thread(scheduler, "Scheduler");
+        schedulerThread.setDaemon(true);
+        schedulerThread.start();
+        Thread.sleep(100); // past the sweep made at start up
+
+        floors.put(new Request(LocalTime.parse("14:05:15.0"), 9, Request.Direction.UP, 12, 0, false));
+        long deadline = System.currentTimeMillis() + 3000;
+        while (floors.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("Expected the request to be taken without an event", 0, floors.size());
+    }
 }
@@ -18,6 +18,11 @@ public class SharedDataInterfaceStub<T> implements SharedDataInterface<T> {
         items.add(item);
     }
 
+    @Override
+    public void putAll(ArrayList<T> newItems) throws RemoteException {
+        items.addAll(newItems);
+    }
+
     @Override
     public T get(int index) throws RemoteException {
         if (index >= 0 && index < items.size()) {
@@ -36,6 +41,20 @@ public class SharedDataInterfaceStub<T> implements SharedDataInterface<T> {
         return items.size();
     }
 
+    @Override
+    public T take(long timeoutMillis) throws RemoteException {
+        return remove();
+    }
+
+    @Override
+    public ArrayList<T> drainTo(int maxMessages) throws RemoteException {
+        ArrayList<T> drained = new ArrayList<>();
+        while (!items.isEmpty() && drained.size() < maxMessages) {
+            drained.add(items.remove(0));
+        }
+        return drained;
+    }
+
 
     public void setItems(List<T> newItems) {
         this.items = new ArrayList<>(newItems);
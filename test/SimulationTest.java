@@ -0,0 +1,61 @@
+import org.junit.jupiter.api.Test;
+import java.rmi.RemoteException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+    @Test
+    void testSingleRequestTakesElevatorTime() throws RemoteException {
+        ArrayList<Request> requests = new ArrayList<>();
+        requests.add(new Request(LocalTime.parse("14:05:15.0"), 1, Request.Direction.UP, 5, 0, true));
+
+        long duration = new Simulation(requests, new CostDispatch()).run(Simulation.MAX_VIRTUAL_TIME);
+
+        // doors open on floor 1, then 4 floors up, the elevator reports floor 5 as soon as its fourth move starts
+        long travelTime = Elevator.ElevatorState.DOORS_OPEN.getSleepTime() + 3L * Elevator.ElevatorState.MOVING.getSleepTime();
+        assertTrue(duration >= travelTime, "Finished after " + duration + " ms");
+        assertTrue(duration < travelTime + 10000, "Finished after " + duration + " ms");
+    }
+
+    @Test
+    void testEveryRequestIsFinished() throws RemoteException {
+        ArrayList<Request> requests = new ArrayList<>();
+        LocalTime time = LocalTime.parse("14:05:15.0");
+        for (int i = 0; i < 20; i++) {
+            int source = 1 + (i * 7) % FloorStart.NUM_FLOORS;
+            int destination = 1 + (i * 11 + 3) % FloorStart.NUM_FLOORS;
+            if (source == destination) {
+                destination = source % FloorStart.NUM_FLOORS + 1;
+            }
+            Request.Direction direction = destination > source ? Request.Direction.UP : Request.Direction.DOWN;
+            requests.add(new Request(time.plusSeconds(5L * i), source, direction, destination, 0, i == 19));
+        }
+
+        Simulation simulation = new Simulation(requests, new CostDispatch());
+        assertTrue(simulation.run(Simulation.MAX_VIRTUAL_TIME) > 0);
+        assertTrue(simulation.getScheduler().getActiveRequests().isEmpty());
+
+        PassengerMetrics metrics = simulation.getScheduler().getMetrics();
+        assertEquals(20, metrics.getAssignTimes().getCount());
+        assertEquals(20, metrics.getWaitTimes().getCount());
+        assertEquals(20, metrics.getRideTimes().getCount());
+        // every ride is at least one floor
+        assertTrue(metrics.getRideTimes().getValueAtPercentile(0) >= TimeUnit.MILLISECONDS.toNanos(Elevator.ElevatorState.MOVING.getSleepTime()) / 2);
+    }
+
+    @Test
+    void testSleepRunsEventsDueMeanwhile() throws RemoteException {
+        ArrayList<Request> requests = new ArrayList<>();
+        requests.add(new Request(LocalTime.parse("14:05:15.0"), 1, Request.Direction.UP, 5, 0, true));
+        long duration = new Simulation(requests, new CostDispatch()).run(Simulation.MAX_VIRTUAL_TIME);
+
+        Simulation simulation = new Simulation(requests, new CostDispatch());
+        simulation.sleep(5000);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5000), simulation.nanoTime());
+        // the floors started and sent the request while the caller slept, and the run carries on from there
+        assertEquals(1, simulation.getRequestsReplayed());
+        assertEquals(duration, simulation.run(Simulation.MAX_VIRTUAL_TIME));
+    }
+}
@@ -0,0 +1,43 @@
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+public class StatusBoardStub implements StatusBoardInterface {
+    private final Map<Integer, ElevatorStatus> statuses = new HashMap<>();
+    private final Map<Integer, Long> versions = new HashMap<>();
+    private long version = 0;
+
+    @Override
+    public void put(ElevatorStatus status) throws RemoteException {
+        statuses.put(status.getNumber(), status);
+        versions.put(status.getNumber(), ++version);
+    }
+
+    @Override
+    public void putAll(ArrayList<ElevatorStatus> batch) throws RemoteException {
+        for (ElevatorStatus status : batch) {
+            put(status);
+        }
+    }
+
+    @Override
+    public ElevatorStatus get(int elevatorNumber) throws RemoteException {
+        return statuses.get(elevatorNumber);
+    }
+
+    @Override
+    public long getVersion() throws RemoteException {
+        return version;
+    }
+
+    @Override
+    public long getVersion(int elevatorNumber) throws RemoteException {
+        return versions.getOrDefault(elevatorNumber, 0L);
+    }
+
+    @Override
+    public int size() throws RemoteException {
+        return ElevatorStart.NUM_ELEVATORS;
+    }
+}
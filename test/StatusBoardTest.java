@@ -0,0 +1,117 @@
+import org.junit.jupiter.api.Test;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusBoardTest {
+    @Test
+    void testPutReplacesElevatorSlot() throws RemoteException {
+        StatusBoard board = new StatusBoard(4);
+        board.put(new ElevatorStatus(2, 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        board.put(new ElevatorStatus(2, 2, 5, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+
+        assertEquals(2, board.get(2).getCurrentFloor());
+        assertNull(board.get(1));
+        assertNull(board.get(5));
+    }
+
+    @Test
+    void testVersionsTrackChangedSlots() throws RemoteException {
+        StatusBoard board = new StatusBoard(4);
+        assertEquals(0, board.getVersion());
+
+        board.put(new ElevatorStatus(1, 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        board.put(new ElevatorStatus(3, 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+
+        assertEquals(2, board.getVersion());
+        assertEquals(1, board.getVersion(1));
+        assertEquals(0, board.getVersion(2));
+        assertEquals(2, board.getVersion(3));
+    }
+
+    @Test
+    void testPutAllKeepsLatestPerElevator() throws RemoteException {
+        StatusBoard board = new StatusBoard(4);
+        ArrayList<ElevatorStatus> batch = new ArrayList<>();
+        batch.add(new ElevatorStatus(1, 1, 3, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        batch.add(new ElevatorStatus(1, 2, 3, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP));
+        batch.add(new ElevatorStatus(4, 9, 9, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        board.putAll(batch);
+
+        assertEquals(2, board.get(1).getCurrentFloor());
+        assertEquals(9, board.get(4).getCurrentFloor());
+        assertEquals(3, board.getVersion());
+    }
+
+    @Test
+    void testAwaitVersionTimesOutWithoutChange() throws RemoteException {
+        StatusBoard board = new StatusBoard(1);
+        assertEquals(0, board.awaitVersion(0, 10));
+        board.put(new ElevatorStatus(1, 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        assertEquals(1, board.awaitVersion(0, 10));
+    }
+
+    // reads the board as Scheduler.selectElevator does, skipping every slot when the board version is unchanged
+    private static class VersionReader {
+        private final StatusBoard board;
+        private final long[] seen;
+        private long lastVersion = 0;
+        final ArrayList<Integer> changed = new ArrayList<>();
+
+        VersionReader(StatusBoard board) {
+            this.board = board;
+            seen = new long[board.size()];
+        }
+
+        void read() throws RemoteException {
+            long version = board.getVersion();
+            for (int i = 0; i < seen.length && version != lastVersion; i++) {
+                long slotVersion = board.getVersion(i + 1);
+                if (slotVersion != seen[i]) {
+                    seen[i] = slotVersion;
+                    changed.add(i + 1);
+                }
+            }
+            lastVersion = version;
+        }
+    }
+
+    // reads the board once more in the middle of every put, between writing the slot and publishing the board version
+    private static class ReadDuringPutBoard extends StatusBoard {
+        VersionReader reader;
+
+        ReadDuringPutBoard(int numElevators) throws RemoteException {
+            super(numElevators);
+        }
+
+        @Override
+        protected void beforePublish() {
+            try {
+                reader.read();
+            } catch (RemoteException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Test
+    void testReaderBetweenSlotAndBoardVersionMissesNothing() throws RemoteException {
+        ReadDuringPutBoard board = new ReadDuringPutBoard(4);
+        VersionReader reader = new VersionReader(board);
+        board.reader = reader;
+
+        board.put(new ElevatorStatus(2, 1, 1, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        reader.read(); // the read woken by the put listener
+        assertEquals(1, reader.changed.size());
+        assertEquals(2, (int) reader.changed.get(0));
+
+        ArrayList<ElevatorStatus> batch = new ArrayList<>();
+        batch.add(new ElevatorStatus(3, 4, 4, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        board.putAll(batch);
+        reader.read();
+        assertEquals(2, reader.changed.size());
+        assertEquals(3, (int) reader.changed.get(1));
+        UnicastRemoteObject.unexportObject(board, true);
+    }
+}
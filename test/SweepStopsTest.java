@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SweepStopsTest {
+    private static RequestPickedUpPair pair(int source, int destination, boolean pickedUp) {
+        Request.Direction direction = destination > source ? Request.Direction.UP : Request.Direction.DOWN;
+        return new RequestPickedUpPair(new Request(LocalTime.parse("14:05:15.0"), source, direction, destination, 0, false), pickedUp);
+    }
+
+    @Test
+    void testServesStopsInDirectionOfTravel() {
+        ArrayList<RequestPickedUpPair> queue = new ArrayList<>();
+        queue.add(pair(1, 20, true));
+        queue.add(pair(5, 12, false));
+        SweepStops stops = new SweepStops();
+        stops.rebuild(queue);
+        stops.setDirection(Elevator.ElevatorMovement.UP);
+
+        assertEquals(5, stops.nextStop(2));
+        ArrayList<RequestPickedUpPair> pickedUp = new ArrayList<>();
+        ArrayList<RequestPickedUpPair> droppedOff = new ArrayList<>();
+        stops.serve(5, queue, pickedUp, droppedOff);
+        assertEquals(1, pickedUp.size());
+        assertEquals(12, stops.nextStop(5));
+        stops.serve(12, queue, pickedUp, droppedOff);
+        assertEquals(1, droppedOff.size());
+        assertEquals(20, stops.nextStop(12));
+    }
+
+    @Test
+    void testPassesPassengersGoingTheOtherWay() {
+        ArrayList<RequestPickedUpPair> queue = new ArrayList<>();
+        queue.add(pair(1, 20, true));
+        queue.add(pair(5, 2, false));
+        SweepStops stops = new SweepStops();
+        stops.rebuild(queue);
+        stops.setDirection(Elevator.ElevatorMovement.UP);
+
+        assertEquals(20, stops.nextStop(3));
+        ArrayList<RequestPickedUpPair> pickedUp = new ArrayList<>();
+        ArrayList<RequestPickedUpPair> droppedOff = new ArrayList<>();
+        stops.serve(20, queue, pickedUp, droppedOff);
+        assertEquals(5, stops.nextStop(20));
+        assertEquals(Elevator.ElevatorMovement.DOWN, stops.getDirection());
+    }
+
+    @Test
+    void testTurnsAroundAtTopOfDownSweep() {
+        ArrayList<RequestPickedUpPair> queue = new ArrayList<>();
+        queue.add(pair(10, 3, false));
+        SweepStops stops = new SweepStops();
+        stops.rebuild(queue);
+        stops.setDirection(Elevator.ElevatorMovement.UP);
+
+        assertEquals(10, stops.nextStop(4));
+        assertEquals(10, stops.nextStop(10));
+        ArrayList<RequestPickedUpPair> pickedUp = new ArrayList<>();
+        stops.serve(10, queue, pickedUp, new ArrayList<>());
+        assertEquals(1, pickedUp.size());
+        assertEquals(3, stops.nextStop(10));
+    }
+}
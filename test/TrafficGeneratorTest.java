@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.Test;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficGeneratorTest {
+    private static ArrayList<Request> generate(TrafficGenerator traffic) {
+        ArrayList<Request> requests = new ArrayList<>();
+        while (traffic.hasNext()) {
+            requests.add(traffic.next());
+        }
+        return requests;
+    }
+
+    @Test
+    void testSameSeedGivesSameTraffic() {
+        ArrayList<Request> first = generate(new TrafficGenerator(TrafficGenerator.Pattern.LUNCH, 10, 60, 7));
+        ArrayList<Request> second = generate(new TrafficGenerator(TrafficGenerator.Pattern.LUNCH, 10, 60, 7));
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).toString(), second.get(i).toString());
+        }
+    }
+
+    @Test
+    void testUpPeakMostlyLeavesTheLobbyAtTheRequestedRate() {
+        ArrayList<Request> requests = generate(new TrafficGenerator(TrafficGenerator.Pattern.UP_PEAK, 20, 120, 20, 3, 0, 0));
+        assertTrue(Math.abs(requests.size() - 2400) < 200, "Generated " + requests.size() + " requests");
+
+        int fromLobby = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            Request request = requests.get(i);
+            assertTrue(request.getSourceFloor() != request.getDestinationFloor());
+            assertTrue(request.getSourceFloor() >= 1 && request.getSourceFloor() <= 20);
+            assertTrue(request.getDestinationFloor() >= 1 && request.getDestinationFloor() <= 20);
+            assertEquals(request.getDestinationFloor() > request.getSourceFloor(), request.getDirection() == Request.Direction.UP);
+            assertEquals(i == requests.size() - 1, request.isLastRequest());
+            if (i > 0) {
+                assertFalse(request.getTime().isBefore(requests.get(i - 1).getTime()));
+            }
+            if (request.getSourceFloor() == 1) {
+                fromLobby++;
+            }
+        }
+        assertTrue(fromLobby > requests.size() * 0.8, fromLobby + " of " + requests.size() + " from the lobby");
+    }
+
+    @Test
+    void testWrittenRequestsParseBack() throws Exception {
+        TrafficGenerator traffic = new TrafficGenerator(TrafficGenerator.Pattern.DOWN_PEAK, 30, 10, 22, 5, 0.1, 0.05);
+        int faults = 0;
+        while (traffic.hasNext()) {
+            Request request = traffic.next();
+            StringWriter line = new StringWriter();
+            TrafficGenerator.write(request, line);
+            Request parsed = InputParser.parseLine(line.toString());
+            assertEquals(request.getTime(), parsed.getTime());
+            assertEquals(request.getSourceFloor(), parsed.getSourceFloor());
+            assertEquals(request.getDirection(), parsed.getDirection());
+            assertEquals(request.getDestinationFloor(), parsed.getDestinationFloor());
+            assertEquals(request.getFault(), parsed.getFault());
+            if (request.getFault() != 0) {
+                faults++;
+            }
+        }
+        assertTrue(faults > 0);
+    }
+}
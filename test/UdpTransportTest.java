@@ -0,0 +1,199 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips through a UdpServer on an ephemeral loopback port.
+ */
+class UdpTransportTest {
+    private MessageBuffer<Request> requests;
+    private StatusBoard statuses;
+    private SharedDataInterface<Request> requestClient;
+    private StatusBoardInterface statusClient;
+    private UdpServer server;
+    private InetSocketAddress serverAddress;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        requests = new MessageBuffer<>();
+        statuses = new StatusBoard(4);
+        server = new UdpServer(0);
+        server.bind("Requests", requests, WireCodec.REQUEST);
+        server.bind("Statuses", statuses);
+        Thread serverThread = new Thread(server, "UDP Server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        serverAddress = new InetSocketAddress("localhost", server.getPort());
+        requestClient = new UdpSharedData<>(serverAddress, "Requests", WireCodec.REQUEST);
+        statusClient = new UdpStatusBoard(serverAddress, "Statuses");
+    }
+
+    @Test
+    void testPutAndRemoveRequest() throws Exception {
+        Request request = new Request(LocalTime.parse("14:05:15.5"), 3, Request.Direction.DOWN, 1, 1, true);
+        requestClient.put(request);
+        assertEquals(1, requests.size());
+
+        Request received = requestClient.remove();
+        assertEquals(request.getTime(), received.getTime());
+        assertEquals(3, received.getSourceFloor());
+        assertEquals(Request.Direction.DOWN, received.getDirection());
+        assertEquals(1, received.getDestinationFloor());
+        assertEquals(1, received.getFault());
+        assertTrue(received.isLastRequest());
+        assertNull(requestClient.remove());
+    }
+
+    @Test
+    void testPutAllAndDrainTo() throws Exception {
+        ArrayList<Request> batch = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            batch.add(new Request(LocalTime.parse("14:05:15.0"), i, Request.Direction.UP, 10, 0, false));
+        }
+        requestClient.putAll(batch);
+        assertEquals(5, requestClient.size());
+
+        ArrayList<Request> drained = requestClient.drainTo(10);
+        assertEquals(5, drained.size());
+        assertEquals(1, drained.get(0).getSourceFloor());
+        assertEquals(5, drained.get(4).getSourceFloor());
+    }
+
+    @Test
+    void testTakeWaitsForPut() throws Exception {
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                requests.put(new Request(LocalTime.parse("14:05:15.0"), 7, Request.Direction.UP, 9, 0, false));
+            } catch (Exception e) {
+                fail(e.getMessage());
+            }
+        });
+        producer.start();
+        Request taken = requestClient.take(5000);
+        assertNotNull(taken);
+        assertEquals(7, taken.getSourceFloor());
+        producer.join();
+
+        assertNull(requestClient.take(10));
+    }
+
+    @Test
+    void testStatusBoard() throws Exception {
+        ElevatorStatus status = new ElevatorStatus(2, 5, 9, Elevator.ElevatorState.MOVING, Elevator.ElevatorMovement.UP);
+        statusClient.put(status);
+
+        assertEquals(status, statuses.get(2));
+        assertEquals(status, statusClient.get(2));
+        assertNull(statusClient.get(1));
+        assertEquals(1, statusClient.getVersion());
+        assertEquals(1, statusClient.getVersion(2));
+        assertEquals(4, statusClient.size());
+    }
+
+    @Test
+    void testRepeatedCallRunsOnce() throws Exception {
+        requests.put(new Request(LocalTime.parse("14:05:15.0"), 4, Request.Direction.UP, 8, 0, false));
+        requests.put(new Request(LocalTime.parse("14:05:16.0"), 6, Request.Direction.UP, 9, 0, false));
+
+        // the same remove sent twice, as a client does when the reply is lost
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            channel.connect(serverAddress);
+            ByteBuffer call = ByteBuffer.allocate(UdpClient.HEADER_SIZE);
+            call.putLong(42);
+            call.putInt(1);
+            call.put(UdpClient.REMOVE);
+            UdpClient.putString(call, "Requests");
+            call.flip();
+            for (int i = 0; i < 2; i++) {
+                channel.write(call.duplicate());
+                ByteBuffer reply = ByteBuffer.allocate(UdpClient.MAX_DATAGRAM);
+                channel.read(reply);
+                reply.flip();
+                assertEquals(1, reply.getInt());
+                assertEquals(UdpClient.OK, reply.get());
+                assertEquals(4, WireCodec.REQUEST.readOptional(reply).getSourceFloor());
+            }
+        }
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void testNothingLostWhenDatagramsAreDropped() throws Exception {
+        for (int i = 1; i <= 4; i++) {
+            requests.put(new Request(LocalTime.parse("14:05:15.0"), i, Request.Direction.UP, 10, 0, false));
+        }
+        try (DatagramChannel relay = DatagramChannel.open()) {
+            relay.bind(new InetSocketAddress("localhost", 0));
+            Thread relayThread = new Thread(() -> dropEveryThird(relay), "Lossy Relay");
+            relayThread.setDaemon(true);
+            relayThread.start();
+
+            // every third datagram is dropped, among them requests and replies to removes and puts
+            SharedDataInterface<Request> lossyClient = new UdpSharedData<>((InetSocketAddress) relay.getLocalAddress(), "Requests", WireCodec.REQUEST);
+            for (int i = 1; i <= 4; i++) {
+                assertEquals(i, lossyClient.remove().getSourceFloor());
+            }
+            for (int i = 5; i <= 7; i++) {
+                lossyClient.put(new Request(LocalTime.parse("14:05:15.0"), i, Request.Direction.UP, 10, 0, false));
+            }
+            assertEquals(3, requests.size());
+            assertEquals(5, requests.remove().getSourceFloor());
+        }
+    }
+
+    @Test
+    void testFullBufferDoesNotStallOtherCalls() throws Exception {
+        MessageBuffer<Request> small = new MessageBuffer<>(1, MessageBuffer.OverflowPolicy.BLOCK);
+        small.put(new Request(LocalTime.parse("14:05:15.0"), 1, Request.Direction.UP, 10, 0, false));
+        server.bind("Small", small, WireCodec.REQUEST);
+        SharedDataInterface<Request> smallClient = new UdpSharedData<>(serverAddress, "Small", WireCodec.REQUEST);
+        Thread producer = new Thread(() -> {
+            try {
+                smallClient.put(new Request(LocalTime.parse("14:05:15.0"), 2, Request.Direction.UP, 10, 0, false));
+            } catch (Exception e) {
+                fail(e.getMessage());
+            }
+        });
+        producer.start();
+        Thread.sleep(100);
+
+        // the put is waiting for room, everything else is still answered
+        assertTrue(producer.isAlive());
+        statusClient.put(new ElevatorStatus(1, 3, 3, Elevator.ElevatorState.IDLE, Elevator.ElevatorMovement.STOP));
+        assertEquals(0, requestClient.size());
+        assertEquals(1, small.remove().getSourceFloor());
+        producer.join(5000);
+        assertEquals(2, small.remove().getSourceFloor());
+    }
+
+    // forwards datagrams between one client and the server, dropping every third one in either direction
+    private void dropEveryThird(DatagramChannel relay) {
+        ByteBuffer datagram = ByteBuffer.allocate(UdpClient.MAX_DATAGRAM);
+        SocketAddress client = null;
+        try {
+            for (int count = 0; ; count++) {
+                datagram.clear();
+                SocketAddress from = relay.receive(datagram);
+                datagram.flip();
+                boolean fromServer = from.equals(serverAddress);
+                if (!fromServer) {
+                    client = from;
+                }
+                if (count % 3 != 1) {
+                    relay.send(datagram, fromServer ? client : serverAddress);
+                }
+            }
+        } catch (IOException e) {
+            // the relay was closed
+        }
+    }
+}
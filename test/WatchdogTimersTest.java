@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatchdogTimersTest {
+    @Test
+    void testExpiredTimersFireInDeadlineOrder() {
+        WatchdogTimers timers = new WatchdogTimers(4);
+        timers.arm(1, 300);
+        timers.arm(2, 100);
+        timers.arm(3, 200);
+
+        assertEquals(-1, timers.pollExpired(99));
+        assertEquals(2, timers.pollExpired(250));
+        assertEquals(3, timers.pollExpired(250));
+        assertEquals(-1, timers.pollExpired(250));
+        assertEquals(1, timers.size());
+        assertEquals(50, timers.nanosUntilNext(250));
+    }
+
+    @Test
+    void testRearmAndCancel() {
+        WatchdogTimers timers = new WatchdogTimers(4);
+        timers.arm(1, 100);
+        timers.arm(2, 200);
+        timers.arm(1, 500); // re-arming moves the deadline rather than adding a second timer
+        timers.cancel(2);
+
+        assertFalse(timers.isArmed(2));
+        assertEquals(1, timers.size());
+        assertEquals(-1, timers.pollExpired(400));
+        assertEquals(1, timers.pollExpired(500));
+        assertEquals(Long.MAX_VALUE, timers.nanosUntilNext(500));
+    }
+
+    @Test
+    void testDeadlinesAcrossNanoTimeWrap() {
+        WatchdogTimers timers = new WatchdogTimers(2);
+        timers.arm(1, Long.MIN_VALUE + 10); // after the wrap
+        timers.arm(2, Long.MAX_VALUE - 10); // before the wrap
+
+        assertEquals(2, timers.pollExpired(Long.MAX_VALUE));
+        assertEquals(-1, timers.pollExpired(Long.MAX_VALUE));
+    }
+}